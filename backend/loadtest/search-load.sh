@@ -0,0 +1,40 @@
+#!/usr/bin/env bash
+# Load test for the provider-bound search endpoints, to compare execution modes
+#
+# Usage: loadtest/search-load.sh <label> [base-url]
+#   1. Start the backend in one mode, e.g. VOYAGECONNECT_EXECUTION_MODE=platform mvn spring-boot:run
+#      (virtual threads need JDK 21+; on JDK 17 "virtual" falls back to platform)
+#   2. Run: loadtest/search-load.sh platform
+#   3. Restart with VOYAGECONNECT_EXECUTION_MODE=virtual and run: loadtest/search-load.sh virtual
+# Results go to loadtest/results/<label>-<endpoint>.txt
+#
+# Requires hey (https://github.com/rakyll/hey). Tunables: CONCURRENCY (default 200), DURATION (default 60s),
+# CITY (default RAK), ORIGIN / DESTINATION / DEPARTURE_DATE for flights.
+# Provider quotas (voyageconnect.rate-limit.*) and response caches shape the results: for a thread-model
+# comparison point the provider base URLs at a stub with fixed latency, or disable the caches.
+set -euo pipefail
+
+LABEL="${1:?usage: $0 <label> [base-url]}"
+BASE_URL="${2:-http://localhost:8080}"
+CONCURRENCY="${CONCURRENCY:-200}"
+DURATION="${DURATION:-60s}"
+CITY="${CITY:-RAK}"
+ORIGIN="${ORIGIN:-CMN}"
+DESTINATION="${DESTINATION:-CDG}"
+DEPARTURE_DATE="${DEPARTURE_DATE:-$(date -d '+30 days' +%F 2>/dev/null || date -v+30d +%F)}"
+
+command -v hey >/dev/null || { echo "hey not found: go install github.com/rakyll/hey@latest" >&2; exit 1; }
+
+RESULTS="$(dirname "$0")/results"
+mkdir -p "$RESULTS"
+
+run() {
+  local name="$1" url="$2"
+  echo "→ $LABEL / $name: $CONCURRENCY concurrent for $DURATION"
+  hey -z "$DURATION" -c "$CONCURRENCY" "$url" | tee "$RESULTS/$LABEL-$name.txt"
+}
+
+run hotels "$BASE_URL/api/hotels?city=$CITY"
+run flights "$BASE_URL/api/amadeus/flights?origin=$ORIGIN&destination=$DESTINATION&departureDate=$DEPARTURE_DATE&adults=1"
+
+echo "✓ Results in $RESULTS (compare Requests/sec, latency distribution and error counts across labels)"
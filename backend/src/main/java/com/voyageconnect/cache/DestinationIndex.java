@@ -0,0 +1,240 @@
+package com.voyageconnect.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable in-memory destination search index for autocomplete
+ * - Prefix trie over the normalized (accent-free, lower-case) name, its words, the aliases and the IATA
+ *   code; every node keeps its best entries by popularity, so a prefix lookup is one walk down the trie
+ * - Trigram index over the same terms for typos ("marakech", "casablnca"): terms sharing at least
+ *   MIN_SIMILARITY of the keyword's trigrams are added after the prefix matches
+ * - An exact IATA code (city or airport alias) always ranks first
+ * Rebuilt, never modified: see DestinationIndexService
+ */
+public final class DestinationIndex {
+
+    public static final DestinationIndex EMPTY = new DestinationIndex(List.of());
+
+    // Prefix matches kept per trie node
+    private static final int TOP_PER_NODE = 32;
+    private static final int MIN_TRIGRAM_KEYWORD = 3;
+    private static final double MIN_SIMILARITY = 0.6;
+
+    /**
+     * One destination; aliases are other spellings, airport names and airport codes
+     */
+    public record Entry(String id, String name, String iataCode, String country, int popularity,
+                        List<String> aliases) {
+
+        /**
+         * Same shape as the Amadeus destination results (id, name, iataCode, country)
+         */
+        public Map<String, Object> toMap() {
+            Map<String, Object> destination = new LinkedHashMap<>();
+            destination.put("id", id);
+            destination.put("name", name);
+            destination.put("iataCode", iataCode);
+            destination.put("country", country);
+            return destination;
+        }
+    }
+
+    private final List<Entry> entries;
+    private final Node root = new Node();
+    private final Map<String, Integer> byCode = new HashMap<>();
+    // Entry of every indexed term; the trigram postings hold term positions in this list
+    private final List<Integer> termEntries = new ArrayList<>();
+    private final Map<String, List<Integer>> trigrams = new HashMap<>();
+
+    public DestinationIndex(List<Entry> entries) {
+        // Most popular first: each trie node then keeps the first TOP_PER_NODE distinct entries it sees
+        this.entries = entries.stream()
+            .sorted(Comparator.comparingInt(Entry::popularity).reversed())
+            .toList();
+        for (int i = 0; i < this.entries.size(); i++) {
+            Entry entry = this.entries.get(i);
+            for (String term : terms(entry)) {
+                insert(term, i);
+                addTrigrams(term, i);
+            }
+            if (!entry.iataCode().isEmpty()) {
+                byCode.putIfAbsent(entry.iataCode().toUpperCase(Locale.ROOT), i);
+            }
+            for (String alias : entry.aliases()) {
+                if (isCode(alias)) {
+                    byCode.putIfAbsent(alias.toUpperCase(Locale.ROOT), i);
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Entry for a city or airport IATA code, or null
+     */
+    public Entry byCode(String code) {
+        Integer index = code == null ? null : byCode.get(code.trim().toUpperCase(Locale.ROOT));
+        return index == null ? null : entries.get(index);
+    }
+
+    /**
+     * Matches for a keyword: direct ones (exact code or name prefix) and typo ones (trigram similarity)
+     */
+    public record Matches(List<Entry> direct, List<Entry> similar) {
+
+        static final Matches NONE = new Matches(List.of(), List.of());
+
+        public List<Entry> all() {
+            List<Entry> all = new ArrayList<>(direct.size() + similar.size());
+            all.addAll(direct);
+            all.addAll(similar);
+            return all;
+        }
+    }
+
+    /**
+     * Best matches for an autocomplete keyword: exact code, then prefix matches by popularity,
+     * then typo matches by similarity
+     */
+    public List<Entry> search(String keyword, int limit) {
+        return match(keyword, limit).all();
+    }
+
+    /**
+     * Same as search, with the typo matches kept apart: a keyword matching only by similarity
+     * ("parma" -> Paris) may well be a destination the index does not know
+     */
+    public Matches match(String keyword, int limit) {
+        String key = DestinationSearchCache.normalize(keyword);
+        if (key.isEmpty() || limit <= 0) {
+            return Matches.NONE;
+        }
+        Set<Integer> matches = new LinkedHashSet<>();
+        Integer exactCode = byCode.get(key.toUpperCase(Locale.ROOT));
+        if (exactCode != null) {
+            matches.add(exactCode);
+        }
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        if (node != null) {
+            for (int i = 0; i < node.top.size() && matches.size() < limit; i++) {
+                matches.add(node.top.get(i));
+            }
+        }
+        List<Entry> direct = new ArrayList<>(matches.size());
+        matches.forEach(index -> direct.add(entries.get(index)));
+        List<Entry> typos = new ArrayList<>();
+        if (matches.size() < limit && key.length() >= MIN_TRIGRAM_KEYWORD) {
+            for (Integer similar : similar(key)) {
+                if (matches.size() >= limit) {
+                    break;
+                }
+                if (matches.add(similar)) {
+                    typos.add(entries.get(similar));
+                }
+            }
+        }
+        return new Matches(direct, typos);
+    }
+
+    /**
+     * Entries whose terms contain at least MIN_SIMILARITY of the keyword's trigrams, most similar first
+     * The keyword is not padded at the end: it is usually a prefix still being typed
+     */
+    private List<Integer> similar(String key) {
+        List<String> keyGrams = trigrams(key, false);
+        int[] shared = new int[termEntries.size()];
+        for (String gram : keyGrams) {
+            List<Integer> postings = trigrams.get(gram);
+            if (postings != null) {
+                for (int term : postings) {
+                    shared[term]++;
+                }
+            }
+        }
+        Map<Integer, Double> best = new HashMap<>();
+        for (int term = 0; term < shared.length; term++) {
+            double similarity = (double) shared[term] / keyGrams.size();
+            if (similarity >= MIN_SIMILARITY) {
+                best.merge(termEntries.get(term), similarity, Math::max);
+            }
+        }
+        // Entries are stored by popularity, so equal similarities keep that order
+        return best.entrySet().stream()
+            .sorted(Map.Entry.<Integer, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+
+    private void insert(String term, int entry) {
+        Node node = root;
+        for (int i = 0; i < term.length(); i++) {
+            node = node.children.computeIfAbsent(term.charAt(i), c -> new Node());
+            if (node.top.size() < TOP_PER_NODE && !node.top.contains(entry)) {
+                node.top.add(entry);
+            }
+        }
+    }
+
+    private void addTrigrams(String term, int entry) {
+        int termIndex = termEntries.size();
+        termEntries.add(entry);
+        for (String gram : trigrams(term, true)) {
+            trigrams.computeIfAbsent(gram, g -> new ArrayList<>()).add(termIndex);
+        }
+    }
+
+    /**
+     * Normalized searchable terms: name, each word of a multi-word name, aliases and the IATA code
+     */
+    private static Set<String> terms(Entry entry) {
+        Set<String> terms = new LinkedHashSet<>();
+        String name = DestinationSearchCache.normalize(entry.name());
+        terms.add(name);
+        for (String word : name.split("[ \\-/']")) {
+            if (word.length() >= 2) {
+                terms.add(word);
+            }
+        }
+        for (String alias : entry.aliases()) {
+            terms.add(DestinationSearchCache.normalize(alias));
+        }
+        terms.add(DestinationSearchCache.normalize(entry.iataCode()));
+        terms.remove("");
+        return terms;
+    }
+
+    /**
+     * Trigrams of "  " + text (+ " " when padEnd), distinct
+     */
+    static List<String> trigrams(String text, boolean padEnd) {
+        String padded = "  " + text + (padEnd ? " " : "");
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return new ArrayList<>(grams);
+    }
+
+    private static boolean isCode(String alias) {
+        return alias.length() == 3 && alias.chars().allMatch(c -> c >= 'A' && c <= 'Z');
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private final List<Integer> top = new ArrayList<>(2);
+    }
+}
@@ -0,0 +1,184 @@
+package com.voyageconnect.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * In-memory cache for destination autocomplete (Amadeus /v1/reference-data/locations)
+ * - Keyed by normalized keyword (trimmed, lower-case, accents stripped)
+ * - Size-bounded (LRU) and TTL-evicting
+ * - Prefix-aware: "marr" is answered by filtering a cached "mar" result,
+ *   provided that shorter result was complete (Amadeus returned every match)
+ * Metrics: destination.cache.requests{result=hit|prefix_hit|miss}, destination.cache.evictions{cause=size|expired}
+ */
+@Component
+@Slf4j
+public class DestinationSearchCache {
+
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Map<String, Entry> entries;
+
+    private final Counter hits;
+    private final Counter prefixHits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+
+    public DestinationSearchCache(@Value("${voyageconnect.cache.destinations.max-entries:2000}") int maxEntries,
+                                  @Value("${voyageconnect.cache.destinations.ttl-minutes:60}") long ttlMinutes,
+                                  MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMinutes * 60_000L;
+        this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > DestinationSearchCache.this.maxEntries) {
+                    sizeEvictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        this.hits = requestCounter(meterRegistry, "hit");
+        this.prefixHits = requestCounter(meterRegistry, "prefix_hit");
+        this.misses = requestCounter(meterRegistry, "miss");
+        this.sizeEvictions = evictionCounter(meterRegistry, "size");
+        this.expiredEvictions = evictionCounter(meterRegistry, "expired");
+        Gauge.builder("destination.cache.size", this, DestinationSearchCache::size)
+                .description("Cached destination keywords")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Look up destinations for a keyword
+     * @return cached (or prefix-filtered) destinations, or null on a miss
+     */
+    public synchronized List<Map<String, Object>> get(String keyword) {
+        String key = normalize(keyword);
+        long now = System.currentTimeMillis();
+
+        Entry exact = liveEntry(key, now);
+        if (exact != null) {
+            hits.increment();
+            return exact.destinations;
+        }
+
+        // Walk back through shorter prefixes: a complete "mar" result contains every "marr" match
+        for (int length = key.length() - 1; length >= MIN_PREFIX_LENGTH; length--) {
+            Entry prefix = liveEntry(key.substring(0, length), now);
+            if (prefix != null && prefix.complete) {
+                prefixHits.increment();
+                log.debug("Destination cache: '{}' answered from prefix '{}'", key, key.substring(0, length));
+                return filter(prefix.destinations, key);
+            }
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Store the provider result for a keyword
+     * @param complete true when the provider returned every match (no further pages),
+     *                 which allows longer keywords to be answered from this entry
+     */
+    public synchronized void put(String keyword, List<Map<String, Object>> destinations, boolean complete) {
+        List<Map<String, Object>> copy = new ArrayList<>(destinations.size());
+        for (Map<String, Object> destination : destinations) {
+            copy.add(Collections.unmodifiableMap(new LinkedHashMap<>(destination)));
+        }
+        entries.put(normalize(keyword),
+                new Entry(Collections.unmodifiableList(copy), complete, System.currentTimeMillis() + ttlMillis));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Normalize a keyword the same way for lookups and stores: "  Fès " -> "fes"
+     */
+    public static String normalize(String keyword) {
+        if (keyword == null) {
+            return "";
+        }
+        String stripped = Normalizer.normalize(keyword.trim(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "");
+        return stripped.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    private Entry liveEntry(String key, long now) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt <= now) {
+            entries.remove(key);
+            expiredEvictions.increment();
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Keep destinations whose name (any word) or IATA code starts with the keyword
+     */
+    private List<Map<String, Object>> filter(List<Map<String, Object>> destinations, String key) {
+        List<Map<String, Object>> matches = new ArrayList<>();
+        for (Map<String, Object> destination : destinations) {
+            if (matches(destination.get("name"), key) || matches(destination.get("iataCode"), key)) {
+                matches.add(destination);
+            }
+        }
+        return Collections.unmodifiableList(matches);
+    }
+
+    private boolean matches(Object value, String key) {
+        if (value == null) {
+            return false;
+        }
+        String text = normalize(value.toString());
+        if (text.startsWith(key)) {
+            return true;
+        }
+        for (String word : text.split("[ \\-/]")) {
+            if (word.startsWith(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Counter requestCounter(MeterRegistry registry, String result) {
+        return Counter.builder("destination.cache.requests")
+                .description("Destination cache lookups")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static Counter evictionCounter(MeterRegistry registry, String cause) {
+        return Counter.builder("destination.cache.evictions")
+                .description("Destination cache evictions")
+                .tag("cause", cause)
+                .register(registry);
+    }
+
+    private record Entry(List<Map<String, Object>> destinations, boolean complete, long expiresAt) {}
+}
@@ -0,0 +1,24 @@
+package com.voyageconnect.cache;
+
+import java.util.Locale;
+
+/**
+ * Normalized flight search parameters, used as cache key for flight offers
+ */
+public record FlightSearchKey(String origin, String destination, String departureDate, int adults) {
+
+    // Amadeus accepts 1..9 travelers per flight-offers search
+    public static final int MAX_ADULTS = 9;
+
+    public static boolean isValidAdults(int adults) {
+        return adults >= 1 && adults <= MAX_ADULTS;
+    }
+
+    public static FlightSearchKey of(String origin, String destination, String departureDate, int adults) {
+        return new FlightSearchKey(
+                origin.trim().toUpperCase(Locale.ROOT),
+                destination.trim().toUpperCase(Locale.ROOT),
+                departureDate.trim(),
+                adults);
+    }
+}
@@ -0,0 +1,314 @@
+package com.voyageconnect.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * In-memory spatial index of the hotels returned by provider searches (Booking.com-shaped JSON entries)
+ * - Fixed lat/lng grid of cell-degrees cells: a radius or bounding-box query only scans the cells it overlaps
+ * - One entry per hotel (provider hotel id, else name + position); a newer search result replaces the older one
+ * - Size-bounded (oldest indexed hotel dropped first) and TTL-evicting, like the other search caches;
+ *   the cities already indexed are bounded by max-cities the same way
+ * Lets map panning be answered locally instead of a provider map search per viewport.
+ * Metrics: hotel.geo.index.size, hotel.geo.index.queries{result=hit|miss}
+ */
+@Component
+@Slf4j
+public class HotelGeoIndex {
+
+    private static final double EARTH_RADIUS_METERS = 6_371_000;
+    private static final double METERS_PER_DEGREE_LAT = 111_320;
+
+    private final double cellDegrees;
+    private final int maxHotels;
+    private final int maxCities;
+    private final long ttlMillis;
+    // Insertion order = indexing order, for size eviction
+    private final LinkedHashMap<String, Hotel> hotels = new LinkedHashMap<>();
+    private final Map<Long, Map<String, Hotel>> cells = new HashMap<>();
+    // City searches whose results were indexed, with their expiry
+    private final Map<String, Long> indexedCities = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    /**
+     * One indexed hotel; property is the provider JSON entry returned to clients
+     */
+    public record Hotel(String key, double latitude, double longitude, JsonNode property, long expiresAt) {
+    }
+
+    public HotelGeoIndex(@Value("${voyageconnect.hotels.geo-index.cell-degrees:0.05}") double cellDegrees,
+                         @Value("${voyageconnect.hotels.geo-index.max-hotels:20000}") int maxHotels,
+                         @Value("${voyageconnect.hotels.geo-index.max-cities:1000}") int maxCities,
+                         @Value("${voyageconnect.hotels.geo-index.ttl-minutes:60}") long ttlMinutes,
+                         MeterRegistry meterRegistry) {
+        this.cellDegrees = cellDegrees;
+        this.maxHotels = maxHotels;
+        this.maxCities = maxCities;
+        this.ttlMillis = ttlMinutes * 60_000L;
+        this.hits = queryCounter(meterRegistry, "hit");
+        this.misses = queryCounter(meterRegistry, "miss");
+        Gauge.builder("hotel.geo.index.size", this, HotelGeoIndex::size)
+                .description("Hotels in the spatial index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Index provider entries; entries without usable coordinates are ignored
+     * @return number of entries indexed
+     */
+    public int addAll(String provider, List<JsonNode> properties) {
+        return addAll(Map.of(provider, properties));
+    }
+
+    /**
+     * Index the entries of several providers in one pass (e.g. an already deduplicated aggregated search)
+     * @return number of entries indexed
+     */
+    public synchronized int addAll(Map<String, List<JsonNode>> propertiesByProvider) {
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        int added = 0;
+        for (Map.Entry<String, List<JsonNode>> provider : propertiesByProvider.entrySet()) {
+            for (JsonNode property : provider.getValue()) {
+                double[] position = coordinates(property);
+                if (position == null) {
+                    continue;
+                }
+                Hotel hotel = new Hotel(key(provider.getKey(), property, position), position[0], position[1],
+                    property, expiresAt);
+                remove(hotel.key());
+                hotels.put(hotel.key(), hotel);
+                cells.computeIfAbsent(cell(position[0], position[1]), c -> new HashMap<>()).put(hotel.key(), hotel);
+                added++;
+            }
+        }
+        Iterator<Hotel> eldest = hotels.values().iterator();
+        while (hotels.size() > maxHotels && eldest.hasNext()) {
+            Hotel evicted = eldest.next();
+            eldest.remove();
+            removeFromCell(evicted);
+        }
+        return added;
+    }
+
+    /**
+     * Hotels within radiusMeters of a point, nearest first
+     */
+    public List<Hotel> nearby(double latitude, double longitude, double radiusMeters, int limit) {
+        double latSpan = radiusMeters / METERS_PER_DEGREE_LAT;
+        double lngSpan = radiusMeters / (METERS_PER_DEGREE_LAT * Math.max(0.01, Math.cos(Math.toRadians(latitude))));
+        List<Hotel> matches = scan(latitude - latSpan, longitude - lngSpan, latitude + latSpan, longitude + lngSpan,
+            hotel -> distanceMeters(latitude, longitude, hotel.latitude(), hotel.longitude()) <= radiusMeters);
+        matches.sort(Comparator.comparingDouble(
+            hotel -> distanceMeters(latitude, longitude, hotel.latitude(), hotel.longitude())));
+        return count(matches.size() > limit ? matches.subList(0, limit) : matches);
+    }
+
+    /**
+     * Hotels inside a bounding box (west > east crosses the antimeridian)
+     */
+    public List<Hotel> withinBounds(double south, double west, double north, double east, int limit) {
+        List<Hotel> matches = scan(south, west, north, west <= east ? east : 180, hotel -> true);
+        if (west > east) {
+            matches.addAll(scan(south, -180, north, east, hotel -> true));
+        }
+        return count(matches.size() > limit ? matches.subList(0, limit) : matches);
+    }
+
+    /**
+     * True when the hotels of a city search were indexed within the TTL (no need to search it again)
+     */
+    public boolean isCityIndexed(String city) {
+        Long expiresAt = indexedCities.get(DestinationSearchCache.normalize(city));
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * Record that the hotels of a city search were indexed; call only once they actually were
+     * Over max-cities, expired cities are dropped first, then the one expiring soonest
+     */
+    public void markCityIndexed(String city) {
+        long now = System.currentTimeMillis();
+        String key = DestinationSearchCache.normalize(city);
+        if (!indexedCities.containsKey(key) && indexedCities.size() >= maxCities) {
+            indexedCities.values().removeIf(expiresAt -> expiresAt <= now);
+            if (indexedCities.size() >= maxCities) {
+                indexedCities.entrySet().stream()
+                    .min(Map.Entry.comparingByValue())
+                    .ifPresent(oldest -> indexedCities.remove(oldest.getKey(), oldest.getValue()));
+            }
+        }
+        indexedCities.put(key, now + ttlMillis);
+    }
+
+    public synchronized int size() {
+        return hotels.size();
+    }
+
+    @Scheduled(initialDelayString = "${voyageconnect.hotels.geo-index.cleanup-interval-ms:60000}",
+               fixedDelayString = "${voyageconnect.hotels.geo-index.cleanup-interval-ms:60000}")
+    public synchronized void removeExpired() {
+        long now = System.currentTimeMillis();
+        int before = hotels.size();
+        Iterator<Hotel> iterator = hotels.values().iterator();
+        while (iterator.hasNext()) {
+            Hotel hotel = iterator.next();
+            if (hotel.expiresAt() <= now) {
+                iterator.remove();
+                removeFromCell(hotel);
+            }
+        }
+        indexedCities.values().removeIf(expiresAt -> expiresAt <= now);
+        if (hotels.size() < before) {
+            log.debug("Removed {} expired hotels from the spatial index", before - hotels.size());
+        }
+    }
+
+    /**
+     * Live hotels in the cells overlapping the box that pass the filter
+     * When the box covers more cells than are populated, the populated cells are scanned instead
+     */
+    private synchronized List<Hotel> scan(double south, double west, double north, double east,
+                                          Predicate<Hotel> filter) {
+        long now = System.currentTimeMillis();
+        long minLat = index(Math.max(-90, south));
+        long maxLat = index(Math.min(90, north));
+        long minLng = index(Math.max(-180, west));
+        long maxLng = index(Math.min(180, east));
+        List<Hotel> matches = new ArrayList<>();
+        if ((maxLat - minLat + 1) * (maxLng - minLng + 1) > cells.size()) {
+            for (Map<String, Hotel> cell : cells.values()) {
+                collect(cell, south, west, north, east, now, filter, matches);
+            }
+            return matches;
+        }
+        for (long lat = minLat; lat <= maxLat; lat++) {
+            for (long lng = minLng; lng <= maxLng; lng++) {
+                Map<String, Hotel> cell = cells.get(cellKey(lat, lng));
+                if (cell != null) {
+                    collect(cell, south, west, north, east, now, filter, matches);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static void collect(Map<String, Hotel> cell, double south, double west, double north, double east,
+                                long now, Predicate<Hotel> filter, List<Hotel> matches) {
+        for (Hotel hotel : cell.values()) {
+            if (hotel.expiresAt() > now
+                    && hotel.latitude() >= south && hotel.latitude() <= north
+                    && hotel.longitude() >= west && hotel.longitude() <= east
+                    && filter.test(hotel)) {
+                matches.add(hotel);
+            }
+        }
+    }
+
+    private List<Hotel> count(List<Hotel> results) {
+        (results.isEmpty() ? misses : hits).increment();
+        return List.copyOf(results);
+    }
+
+    private void remove(String key) {
+        Hotel previous = hotels.remove(key);
+        if (previous != null) {
+            removeFromCell(previous);
+        }
+    }
+
+    private void removeFromCell(Hotel hotel) {
+        long key = cell(hotel.latitude(), hotel.longitude());
+        Map<String, Hotel> cell = cells.get(key);
+        if (cell != null) {
+            cell.remove(hotel.key());
+            if (cell.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    private long cell(double latitude, double longitude) {
+        return cellKey(index(latitude), index(longitude));
+    }
+
+    private long index(double degrees) {
+        return (long) Math.floor(degrees / cellDegrees);
+    }
+
+    private static long cellKey(long latIndex, long lngIndex) {
+        return (latIndex << 32) ^ (lngIndex & 0xffffffffL);
+    }
+
+    /**
+     * Provider hotel id when present (hotel_id, id, hotelId), else the normalized name and rounded position
+     */
+    private static String key(String provider, JsonNode property, double[] position) {
+        for (String field : new String[]{"hotel_id", "id", "hotelId"}) {
+            JsonNode id = property.get(field);
+            if (id != null && (id.isNumber() || id.isTextual()) && !id.asText().isEmpty()) {
+                return provider + ":" + id.asText();
+            }
+        }
+        String name = property.path("name").asText(property.path("hotel_name").asText(""));
+        return String.format(Locale.ROOT, "%s:%s@%.4f,%.4f", provider, DestinationSearchCache.normalize(name),
+            position[0], position[1]);
+    }
+
+    /**
+     * {latitude, longitude} of a provider entry (numbers or numeric strings), or null when missing or invalid
+     */
+    public static double[] coordinates(JsonNode node) {
+        JsonNode lat = node.get("latitude");
+        JsonNode lng = node.get("longitude");
+        if (lat == null || lng == null || !lat.isNumber() && !lat.isTextual() || !lng.isNumber() && !lng.isTextual()) {
+            return null;
+        }
+        try {
+            double latitude = Double.parseDouble(lat.asText());
+            double longitude = Double.parseDouble(lng.asText());
+            if (Math.abs(latitude) > 90 || Math.abs(longitude) > 180 || latitude == 0 && longitude == 0) {
+                return null;
+            }
+            return new double[]{latitude, longitude};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Haversine distance
+     */
+    public static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double h = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+            + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.sqrt(h));
+    }
+
+    private static Counter queryCounter(MeterRegistry registry, String result) {
+        return Counter.builder("hotel.geo.index.queries")
+                .description("Spatial hotel index queries")
+                .tag("result", result)
+                .register(registry);
+    }
+}
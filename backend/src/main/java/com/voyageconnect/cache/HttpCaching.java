@@ -0,0 +1,82 @@
+package com.voyageconnect.cache;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP validator helpers for the public search endpoints (/api/destinations, /api/flights, /api/hotels)
+ * - Strong ETags computed over the exact response bytes
+ * - If-None-Match matching (list of tags, "*", weak comparison as allowed for GET)
+ * - Cache-Control with max-age and stale-while-revalidate
+ */
+public final class HttpCaching {
+
+    private HttpCaching() {
+    }
+
+    /**
+     * A JSON response body with its bytes and ETag computed once, so a cached body is not re-encoded
+     * and re-hashed on every request
+     */
+    public record JsonBody(String json, byte[] bytes, String etag) {
+
+        public static JsonBody of(String json) {
+            byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+            return new JsonBody(json, bytes, HttpCaching.etag(bytes));
+        }
+    }
+
+    public static String etag(byte[] body) {
+        return "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+    }
+
+    /**
+     * True when the client already holds the representation identified by etag
+     */
+    public static boolean isNotModified(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static CacheControl cacheControl(long maxAgeSeconds, long staleWhileRevalidateSeconds) {
+        return CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS)
+                .staleWhileRevalidate(staleWhileRevalidateSeconds, TimeUnit.SECONDS)
+                .cachePublic();
+    }
+
+    /**
+     * 304 without a body when If-None-Match matches, otherwise 200 with the JSON bytes
+     * Both carry the ETag and Cache-Control
+     */
+    public static ResponseEntity<byte[]> conditionalJson(byte[] json, String etag, String ifNoneMatch,
+                                                         CacheControl cacheControl) {
+        if (isNotModified(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(json);
+    }
+}
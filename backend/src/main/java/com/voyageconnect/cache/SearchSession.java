@@ -0,0 +1,157 @@
+package com.voyageconnect.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Normalized result set of one flight or hotel search, with every sort order computed up front
+ * Sorting, filtering and paging are answered from the stored items; providers are not called again.
+ * Items missing a sort value (e.g. hotels without a rating) come last in both directions.
+ */
+public final class SearchSession {
+
+    public enum Kind { FLIGHTS, HOTELS }
+
+    public enum SortField {
+        PRICE(Item::price),
+        DURATION(Item::durationMinutes),
+        DEPARTURE(Item::departure),
+        RATING(Item::rating);
+
+        private final Function<Item, Comparable<?>> value;
+
+        SortField(Function<Item, Comparable<?>> value) {
+            this.value = value;
+        }
+
+        /**
+         * @throws IllegalArgumentException for an unknown field name
+         */
+        public static SortField parse(String name) {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * One result: the payload returned to the client and the values it is sorted / filtered on
+     */
+    public record Item(Object payload, Double price, Long durationMinutes, String departure, Double rating,
+                       String airline) {
+    }
+
+    /**
+     * Null bounds are not applied
+     */
+    public record Filter(Double minPrice, Double maxPrice, Double minRating, String airline) {
+
+        boolean matches(Item item) {
+            if (minPrice != null && (item.price() == null || item.price() < minPrice)) {
+                return false;
+            }
+            if (maxPrice != null && (item.price() == null || item.price() > maxPrice)) {
+                return false;
+            }
+            if (minRating != null && (item.rating() == null || item.rating() < minRating)) {
+                return false;
+            }
+            return airline == null || airline.equalsIgnoreCase(item.airline());
+        }
+    }
+
+    /**
+     * One page of the filtered, sorted results; total counts every match, not only this page
+     */
+    public record Page(List<Object> results, int total) {
+    }
+
+    private final String id;
+    private final Kind kind;
+    private final boolean complete;
+    private final long createdAt = System.currentTimeMillis();
+    private final List<Item> items;
+    private final Map<SortField, int[]> ascending = new EnumMap<>(SortField.class);
+    private final Map<SortField, int[]> descending = new EnumMap<>(SortField.class);
+    private volatile long lastAccess = System.currentTimeMillis();
+
+    SearchSession(String id, Kind kind, List<Item> items, boolean complete) {
+        this.id = id;
+        this.kind = kind;
+        this.complete = complete;
+        this.items = List.copyOf(items);
+        for (SortField field : SortField.values()) {
+            ascending.put(field, order(field, false));
+            descending.put(field, order(field, true));
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * False when a provider call failed or missed its latency budget: the items are a partial result
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Pages past the last match are empty but still report the total
+     * @throws IllegalArgumentException for a negative page or a size below 1
+     */
+    public Page page(SortField sort, boolean descendingOrder, Filter filter, int page, int size) {
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("Invalid page " + page + " of size " + size);
+        }
+        int[] order = (descendingOrder ? descending : ascending).get(sort);
+        // long: page * size overflows int for large page numbers
+        long skip = (long) page * size;
+        int total = 0;
+        List<Object> results = new ArrayList<>(Math.min(size, items.size()));
+        for (int index : order) {
+            Item item = items.get(index);
+            if (!filter.matches(item)) {
+                continue;
+            }
+            if (total >= skip && results.size() < size) {
+                results.add(item.payload());
+            }
+            total++;
+        }
+        return new Page(results, total);
+    }
+
+    long getLastAccess() {
+        return lastAccess;
+    }
+
+    long getCreatedAt() {
+        return createdAt;
+    }
+
+    void touch() {
+        lastAccess = System.currentTimeMillis();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private int[] order(SortField field, boolean descendingOrder) {
+        Comparator<Comparable> values = descendingOrder ? Comparator.reverseOrder() : Comparator.naturalOrder();
+        Comparator<Integer> byField = Comparator.comparing(
+            index -> (Comparable) field.value.apply(items.get(index)), Comparator.nullsLast(values));
+        return IntStream.range(0, items.size()).boxed().sorted(byField).mapToInt(Integer::intValue).toArray();
+    }
+}
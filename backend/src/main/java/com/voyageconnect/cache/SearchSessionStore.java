@@ -0,0 +1,111 @@
+package com.voyageconnect.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Server-side search sessions, addressed by a random searchId
+ * - Size-bounded (least recently used session dropped first)
+ * - Idle TTL: every page request extends a session's life; idle sessions are removed by a scheduled sweep
+ * - Partial result sets (a provider failed or was too slow) only live partial-ttl-seconds from creation,
+ *   page requests do not extend them: the client then searches again and gets the providers' fresh answer
+ * Metrics: search.sessions.active, search.sessions.requests{result=hit|miss}
+ */
+@Component
+@Slf4j
+public class SearchSessionStore {
+
+    private final int maxSessions;
+    private final long ttlMillis;
+    private final long partialTtlMillis;
+    private final Map<String, SearchSession> sessions;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public SearchSessionStore(@Value("${voyageconnect.search-sessions.max-sessions:2000}") int maxSessions,
+                              @Value("${voyageconnect.search-sessions.ttl-minutes:15}") long ttlMinutes,
+                              @Value("${voyageconnect.search-sessions.partial-ttl-seconds:60}") long partialTtlSeconds,
+                              MeterRegistry meterRegistry) {
+        this.maxSessions = maxSessions;
+        this.ttlMillis = ttlMinutes * 60_000L;
+        this.partialTtlMillis = partialTtlSeconds * 1000L;
+        this.sessions = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SearchSession> eldest) {
+                return size() > SearchSessionStore.this.maxSessions;
+            }
+        };
+
+        this.hits = requestCounter(meterRegistry, "hit");
+        this.misses = requestCounter(meterRegistry, "miss");
+        Gauge.builder("search.sessions.active", this, SearchSessionStore::size)
+                .description("Live search sessions")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Store a new result set and return its session; complete is false for a partial result set
+     */
+    public synchronized SearchSession create(SearchSession.Kind kind, List<SearchSession.Item> items,
+                                             boolean complete) {
+        SearchSession session = new SearchSession(UUID.randomUUID().toString(), kind, items, complete);
+        sessions.put(session.getId(), session);
+        return session;
+    }
+
+    /**
+     * Live session for the id, or null when unknown or expired
+     */
+    public synchronized SearchSession get(String searchId) {
+        SearchSession session = sessions.get(searchId);
+        if (session == null || isExpired(session, System.currentTimeMillis())) {
+            if (session != null) {
+                sessions.remove(searchId);
+            }
+            misses.increment();
+            return null;
+        }
+        session.touch();
+        hits.increment();
+        return session;
+    }
+
+    public synchronized int size() {
+        return sessions.size();
+    }
+
+    @Scheduled(initialDelayString = "${voyageconnect.search-sessions.cleanup-interval-ms:60000}",
+               fixedDelayString = "${voyageconnect.search-sessions.cleanup-interval-ms:60000}")
+    public synchronized void removeExpired() {
+        long now = System.currentTimeMillis();
+        int before = sessions.size();
+        sessions.values().removeIf(session -> isExpired(session, now));
+        if (sessions.size() < before) {
+            log.debug("Removed {} idle search sessions", before - sessions.size());
+        }
+    }
+
+    private boolean isExpired(SearchSession session, long now) {
+        return session.isComplete()
+            ? session.getLastAccess() + ttlMillis <= now
+            : session.getCreatedAt() + partialTtlMillis <= now;
+    }
+
+    private static Counter requestCounter(MeterRegistry registry, String result) {
+        return Counter.builder("search.sessions.requests")
+                .description("Search session page requests")
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,177 @@
+package com.voyageconnect.cache;
+
+import com.voyageconnect.client.RequestPriority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Size-bounded TTL cache with stale-while-revalidate semantics
+ * - fresh: value younger than freshFor is returned as is
+ * - stale: value within the following staleFor window is returned immediately and ONE background
+ *   refresh is started for the key (a failed refresh keeps the stale value)
+ * - expired / absent: the loader runs on the caller thread and its result is stored
+ * Only successful loads are cached: a loader that throws leaves the cache untouched.
+ * Metrics: cache.requests{cache,result=fresh|stale|miss}, cache.refreshes{cache,outcome=success|failure}
+ */
+@Slf4j
+public class StaleWhileRevalidateCache<K, V> {
+
+    @FunctionalInterface
+    public interface Loader<V> {
+        V load() throws Exception;
+    }
+
+    private final String name;
+    private final int maxEntries;
+    private final long freshMillis;
+    private final long staleMillis;
+    private final Executor refreshExecutor;
+    private final Map<K, Entry<V>> entries;
+    private final Set<K> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final Counter freshHits;
+    private final Counter staleHits;
+    private final Counter misses;
+    private final Counter refreshSuccesses;
+    private final Counter refreshFailures;
+
+    public StaleWhileRevalidateCache(String name, int maxEntries, Duration freshFor, Duration staleFor,
+                                     Executor refreshExecutor, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.freshMillis = freshFor.toMillis();
+        this.staleMillis = staleFor.toMillis();
+        this.refreshExecutor = refreshExecutor;
+        this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > StaleWhileRevalidateCache.this.maxEntries;
+            }
+        };
+
+        this.freshHits = requestCounter(meterRegistry, "fresh");
+        this.staleHits = requestCounter(meterRegistry, "stale");
+        this.misses = requestCounter(meterRegistry, "miss");
+        this.refreshSuccesses = refreshCounter(meterRegistry, "success");
+        this.refreshFailures = refreshCounter(meterRegistry, "failure");
+        Gauge.builder("cache.size", this, StaleWhileRevalidateCache::size)
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Return the cached value for key, or load it with loader
+     * @throws Exception from loader when nothing usable is cached and the load fails
+     */
+    public V get(K key, Loader<V> loader) throws Exception {
+        long now = System.currentTimeMillis();
+        Entry<V> entry = peek(key);
+
+        if (entry != null) {
+            long age = now - entry.loadedAt;
+            if (age < freshMillis) {
+                freshHits.increment();
+                return entry.value;
+            }
+            if (age < freshMillis + staleMillis) {
+                staleHits.increment();
+                refreshInBackground(key, loader);
+                return entry.value;
+            }
+        }
+
+        misses.increment();
+        V value = loader.load();
+        put(key, value);
+        return value;
+    }
+
+    /**
+     * Cached value (fresh or stale) without loading, or null
+     */
+    public V getIfPresent(K key) {
+        Entry<V> entry = peek(key);
+        if (entry == null || System.currentTimeMillis() - entry.loadedAt >= freshMillis + staleMillis) {
+            return null;
+        }
+        return entry.value;
+    }
+
+    public void put(K key, V value) {
+        synchronized (entries) {
+            entries.put(key, new Entry<>(value, System.currentTimeMillis()));
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private Entry<V> peek(K key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    private void refreshInBackground(K key, Loader<V> loader) {
+        // Only one refresh per key at a time; concurrent stale readers just get the stale value
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    // Background refresh: yields provider quota to interactive searches
+                    put(key, RequestPriority.callAs(RequestPriority.WARMUP, loader::load));
+                    refreshSuccesses.increment();
+                } catch (Exception e) {
+                    refreshFailures.increment();
+                    log.warn("Background refresh of {} cache failed for {}: {}", name, key, e.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+            log.debug("Background refresh of {} cache skipped for {}: executor saturated", name, key);
+        }
+    }
+
+    private Counter requestCounter(MeterRegistry registry, String result) {
+        return Counter.builder("cache.requests")
+                .tag("cache", name)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private Counter refreshCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("cache.refreshes")
+                .tag("cache", name)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private record Entry<V>(V value, long loadedAt) {}
+}
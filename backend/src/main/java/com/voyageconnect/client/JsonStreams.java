@@ -0,0 +1,119 @@
+package com.voyageconnect.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Helpers for token-level (streaming) parsing of provider responses with Jackson's JsonParser
+ * Parsers pull only the fields they need and skip everything else with skipChildren(),
+ * so no String body or JsonNode tree is ever built for the full response.
+ * Every read* method expects the parser to be positioned ON the value it reads and leaves it
+ * on that value's last token (END_OBJECT / END_ARRAY / the scalar itself).
+ */
+public final class JsonStreams {
+
+    private JsonStreams() {
+    }
+
+    /**
+     * From the start of the document, advance to the START_ARRAY of a top-level field
+     * @return false when the root is not an object or the field is absent / not an array
+     */
+    public static boolean moveToRootArray(JsonParser parser, String field) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return false;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (field.equals(name)) {
+                return value == JsonToken.START_ARRAY;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    /**
+     * Advance to the next object element of the array the parser is in
+     * @return false at the end of the array; non-object elements are skipped
+     */
+    public static boolean nextObjectElement(JsonParser parser) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+            if (token == JsonToken.START_OBJECT) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    /**
+     * Move to the next field of the current object and onto its value
+     * @return the field name, or null at the end of the object
+     */
+    public static String nextField(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.FIELD_NAME) {
+            return null;
+        }
+        String name = parser.getCurrentName();
+        parser.nextToken();
+        return name;
+    }
+
+    /**
+     * Read the text of one field of the current object, skipping everything else
+     */
+    public static String readTextField(JsonParser parser, String field) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        String result = null;
+        String name;
+        while ((name = nextField(parser)) != null) {
+            if (field.equals(name)) {
+                result = readText(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Text of the current scalar value; null for JSON null, objects and arrays (which are skipped)
+     */
+    public static String readText(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token != null && token.isScalarValue() && token != JsonToken.VALUE_NULL) {
+            return parser.getValueAsString();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    /**
+     * Text of the first element of the current array (e.g. address.lines[0])
+     */
+    public static String readFirstText(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            return readText(parser);
+        }
+        String first = null;
+        boolean seenFirst = false;
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+            if (!seenFirst) {
+                first = readText(parser);
+                seenFirst = true;
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return first;
+    }
+}
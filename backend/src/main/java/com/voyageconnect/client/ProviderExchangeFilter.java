@@ -0,0 +1,80 @@
+package com.voyageconnect.client;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * WebClient counterpart of the RestTemplate interceptors (ProviderRateLimiter, ProviderGuard)
+ * Nothing blocks: a caller without a rate-limit token retries on a timer for up to the interactive max wait,
+ * and the bulkhead is entered without waiting. The bulkhead slot is held until the response body has been
+ * consumed, released or cancelled (or the exchange failed), so streaming bodies count against the limit.
+ * Callers must consume or release the body, as WebClient already requires for the connection.
+ */
+@Component
+public class ProviderExchangeFilter implements ExchangeFilterFunction {
+
+    private static final Duration TOKEN_RETRY_INTERVAL = Duration.ofMillis(50);
+
+    private final ProviderHosts providerHosts;
+    private final ProviderRateLimiter rateLimiter;
+    private final ProviderGuard providerGuard;
+
+    public ProviderExchangeFilter(ProviderHosts providerHosts, ProviderRateLimiter rateLimiter,
+                                  ProviderGuard providerGuard) {
+        this.providerHosts = providerHosts;
+        this.rateLimiter = rateLimiter;
+        this.providerGuard = providerGuard;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String provider = providerHosts.providerName(request.url().getHost());
+        long attempts = Math.max(0, rateLimiter.getInteractiveMaxWaitMs() / TOKEN_RETRY_INTERVAL.toMillis());
+
+        Mono<Void> token = Mono.<Void>fromRunnable(() -> {
+                    if (!rateLimiter.tryAcquire(provider)) {
+                        throw Exceptions.propagate(new ProviderUnavailableException(provider, "rate limit reached"));
+                    }
+                })
+                .retryWhen(Retry.fixedDelay(attempts, TOKEN_RETRY_INTERVAL))
+                .onErrorMap(Exceptions::isRetryExhausted, Throwable::getCause);
+
+        return token.then(Mono.defer(() -> {
+            ProviderGuard.Permit permit;
+            try {
+                permit = providerGuard.tryEnter(provider);
+            } catch (ProviderUnavailableException e) {
+                return Mono.error(e);
+            }
+            AtomicBoolean handedOver = new AtomicBoolean();
+            return next.exchange(request)
+                    .map(response -> {
+                        int status = response.statusCode().value();
+                        permit.record(status);
+                        if (status == 429) {
+                            rateLimiter.onTooManyRequests(provider, response.headers().asHttpHeaders());
+                        }
+                        handedOver.set(true);
+                        return response.mutate()
+                                .body(body -> body.doFinally(signal -> permit.release()))
+                                .build();
+                    })
+                    .doOnError(e -> permit.recordFailure())
+                    // Once a response is emitted its body releases the slot
+                    .doFinally(signal -> {
+                        if (!handedOver.get()) {
+                            permit.release();
+                        }
+                    });
+        }));
+    }
+}
@@ -0,0 +1,339 @@
+package com.voyageconnect.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Per-provider bulkhead and circuit breaker for outbound HTTP calls
+ * Installed as an interceptor on the shared RestTemplate and the pass-through request factory, so every
+ * Amadeus and RapidAPI call (AmadeusClientService, AmadeusHotelService, BookingApiService, HotelApiService)
+ * goes through it. Providers are identified by host (see ProviderHosts).
+ * - Bulkhead: at most max-concurrent calls in flight per provider (until the response is closed);
+ *   callers wait bulkhead-wait-ms for a slot, then fail fast
+ * - Circuit breaker: opens when the failure rate over the last window-size calls reaches the threshold
+ *   (I/O errors, 5xx and 429 count as failures), rejects calls for open-duration-ms, then lets a single
+ *   half-open probe through: success closes the circuit, failure re-opens it
+ * Rejected calls throw ProviderUnavailableException, which the services already turn into their cached
+ * or empty response.
+ * Metrics: provider.circuit.state{provider} (0 closed, 1 open, 2 half-open),
+ * provider.guard.calls{provider,outcome=success|failure|rejected_open|rejected_bulkhead},
+ * provider.bulkhead.available{provider}
+ */
+@Component
+@Slf4j
+public class ProviderGuard implements ClientHttpRequestInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Guard> guards = new ConcurrentHashMap<>();
+    private final ProviderHosts providerHosts;
+
+    @Value("${voyageconnect.providers.resilience.max-concurrent:20}")
+    private int maxConcurrent;
+
+    @Value("${voyageconnect.providers.resilience.bulkhead-wait-ms:100}")
+    private long bulkheadWaitMs;
+
+    @Value("${voyageconnect.providers.resilience.window-size:20}")
+    private int windowSize;
+
+    @Value("${voyageconnect.providers.resilience.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${voyageconnect.providers.resilience.failure-rate-threshold:50}")
+    private int failureRateThreshold;
+
+    @Value("${voyageconnect.providers.resilience.open-duration-ms:30000}")
+    private long openDurationMs;
+
+    public ProviderGuard(MeterRegistry meterRegistry, ProviderHosts providerHosts) {
+        this.meterRegistry = meterRegistry;
+        this.providerHosts = providerHosts;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        Permit permit = enter(providerHosts.providerName(request.getURI().getHost()), bulkheadWaitMs);
+
+        ClientHttpResponse response = null;
+        try {
+            response = execution.execute(request, body);
+            permit.record(response.getStatusCode().value());
+        } catch (IOException | RuntimeException e) {
+            if (response != null) {
+                response.close();
+            }
+            permit.recordFailure();
+            permit.release();
+            throw e;
+        }
+        // The bulkhead slot is held until the body has been consumed and the response closed
+        return new GuardedResponse(response, permit);
+    }
+
+    /**
+     * Non-blocking entry for reactive callers (ProviderExchangeFilter): no wait for a bulkhead slot
+     * The permit must be completed with record/recordFailure and released
+     */
+    public Permit tryEnter(String provider) throws ProviderUnavailableException {
+        return enter(provider, 0);
+    }
+
+    private Permit enter(String provider, long waitMs) throws ProviderUnavailableException {
+        Guard guard = guards.computeIfAbsent(provider, this::newGuard);
+
+        if (!guard.tryAcquirePermission()) {
+            guard.rejectedOpen.increment();
+            throw new ProviderUnavailableException(provider, "circuit open");
+        }
+        boolean slot;
+        try {
+            slot = waitMs > 0
+                    ? guard.bulkhead.tryAcquire(waitMs, TimeUnit.MILLISECONDS)
+                    : guard.bulkhead.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            slot = false;
+        }
+        if (!slot) {
+            guard.releasePermission();
+            guard.rejectedBulkhead.increment();
+            throw new ProviderUnavailableException(provider, "too many concurrent calls");
+        }
+        return new Permit(guard);
+    }
+
+    /**
+     * Current circuit state for a provider (CLOSED when it has not been called yet)
+     */
+    public State getState(String provider) {
+        Guard guard = guards.get(provider);
+        return guard != null ? guard.state : State.CLOSED;
+    }
+
+    private Guard newGuard(String provider) {
+        Guard guard = new Guard(provider, new Semaphore(maxConcurrent),
+                callCounter(provider, "success"), callCounter(provider, "failure"),
+                callCounter(provider, "rejected_open"), callCounter(provider, "rejected_bulkhead"));
+        Gauge.builder("provider.circuit.state", guard, g -> g.state.ordinal())
+                .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .tag("provider", provider)
+                .register(meterRegistry);
+        Gauge.builder("provider.bulkhead.available", guard.bulkhead, Semaphore::availablePermits)
+                .description("Free concurrent call slots for the provider")
+                .tag("provider", provider)
+                .register(meterRegistry);
+        return guard;
+    }
+
+    private Counter callCounter(String provider, String outcome) {
+        return Counter.builder("provider.guard.calls")
+                .description("Outbound provider calls by circuit breaker / bulkhead outcome")
+                .tag("provider", provider)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /**
+     * Breaker state for one provider; the outcome window is a ring buffer guarded by the instance lock
+     */
+    private final class Guard {
+        private final String provider;
+        private final Semaphore bulkhead;
+        private final Counter successes;
+        private final Counter failures;
+        private final Counter rejectedOpen;
+        private final Counter rejectedBulkhead;
+
+        private final boolean[] window = new boolean[windowSize];
+        private int windowIndex;
+        private int windowCount;
+        private int windowFailures;
+
+        private volatile State state = State.CLOSED;
+        private long openedAt;
+        private boolean probeInFlight;
+
+        private Guard(String provider, Semaphore bulkhead, Counter successes, Counter failures,
+                      Counter rejectedOpen, Counter rejectedBulkhead) {
+            this.provider = provider;
+            this.bulkhead = bulkhead;
+            this.successes = successes;
+            this.failures = failures;
+            this.rejectedOpen = rejectedOpen;
+            this.rejectedBulkhead = rejectedBulkhead;
+        }
+
+        synchronized boolean tryAcquirePermission() {
+            if (state == State.OPEN) {
+                if (System.currentTimeMillis() - openedAt < openDurationMs) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                log.info("Circuit for {} half-open, probing", provider);
+            }
+            if (state == State.HALF_OPEN) {
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+            }
+            return true;
+        }
+
+        /**
+         * Give back a half-open probe that never reached the provider
+         */
+        synchronized void releasePermission() {
+            probeInFlight = false;
+        }
+
+        synchronized void record(boolean success) {
+            (success ? successes : failures).increment();
+
+            if (state == State.HALF_OPEN) {
+                probeInFlight = false;
+                if (success) {
+                    resetWindow();
+                    state = State.CLOSED;
+                    log.info("✓ Circuit for {} closed after successful probe", provider);
+                } else {
+                    open();
+                }
+                return;
+            }
+            if (state == State.OPEN) {
+                // Late result of a call started before the circuit opened
+                return;
+            }
+
+            if (windowCount == window.length) {
+                if (!window[windowIndex]) {
+                    windowFailures--;
+                }
+            } else {
+                windowCount++;
+            }
+            window[windowIndex] = success;
+            if (!success) {
+                windowFailures++;
+            }
+            windowIndex = (windowIndex + 1) % window.length;
+
+            if (windowCount >= minimumCalls && windowFailures * 100 >= failureRateThreshold * windowCount) {
+                open();
+            }
+        }
+
+        private void open() {
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+            resetWindow();
+            log.warn("✗ Circuit for {} opened for {} ms", provider, openDurationMs);
+        }
+
+        private void resetWindow() {
+            windowIndex = 0;
+            windowCount = 0;
+            windowFailures = 0;
+        }
+    }
+
+    /**
+     * An admitted call: holds one bulkhead slot (released once) and reports its outcome to the breaker
+     */
+    public static final class Permit {
+        private final Guard guard;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Guard guard) {
+            this.guard = guard;
+        }
+
+        /**
+         * I/O errors, 5xx and 429 count as failures; other statuses (including 4xx) as successes
+         */
+        public void record(int status) {
+            guard.record(status < 500 && status != 429);
+        }
+
+        public void recordFailure() {
+            guard.record(false);
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                guard.bulkhead.release();
+            }
+        }
+    }
+
+    /**
+     * Releases the bulkhead slot when the response is closed
+     */
+    private static final class GuardedResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final Permit permit;
+
+        private GuardedResponse(ClientHttpResponse delegate, Permit permit) {
+            this.delegate = delegate;
+            this.permit = permit;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        @Deprecated
+        @SuppressWarnings("removal")
+        public int getRawStatusCode() throws IOException {
+            return delegate.getStatusCode().value();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                permit.release();
+            }
+        }
+    }
+}
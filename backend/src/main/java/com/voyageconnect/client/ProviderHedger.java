@@ -0,0 +1,374 @@
+package com.voyageconnect.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.AbstractClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.InterceptingClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hedged requests for idempotent provider GETs (opt-in, voyageconnect.hedging.enabled)
+ * Wraps the RestTemplate's request factory, below the rate limiter and circuit breaker interceptors:
+ * - Eligible calls (GET, provider and path prefix listed in voyageconnect.hedging.*, interactive lane)
+ *   start on the hedge pool; when no response has arrived after the endpoint's observed p95 latency,
+ *   an identical backup request is sent and the first response wins (the other one is closed)
+ * - Latencies are tracked per provider endpoint over the last window-size calls; endpoints hedge only
+ *   once min-samples latencies are known
+ * - Hedge budget: every eligible call earns budget-percent/100 of a backup, so backups stay below that
+ *   share of calls (bursts are capped at max-burst backups)
+ * - A backup needs a rate-limiter token right away (it never queues) and goes through ProviderGuard
+ * Metrics: provider.hedge{provider,outcome=sent|won|skipped_budget|skipped_quota}
+ */
+@Component
+@Slf4j
+public class ProviderHedger {
+
+    private final ProviderHosts providerHosts;
+    private final ProviderRateLimiter providerRateLimiter;
+    private final ProviderGuard providerGuard;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+    private final Map<String, HedgeBudget> budgets = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor hedgePool;
+
+    @Value("${voyageconnect.hedging.enabled:false}")
+    private boolean enabled;
+
+    @Value("${voyageconnect.hedging.providers:amadeus}")
+    private String[] providers;
+
+    @Value("${voyageconnect.hedging.paths:/v2/shopping/flight-offers,/v3/shopping/hotel-offers,/v1/reference-data/locations}")
+    private String[] paths;
+
+    @Value("${voyageconnect.hedging.budget-percent:5}")
+    private double budgetPercent;
+
+    @Value("${voyageconnect.hedging.max-burst:10}")
+    private int maxBurst;
+
+    @Value("${voyageconnect.hedging.window-size:200}")
+    private int windowSize;
+
+    @Value("${voyageconnect.hedging.min-samples:20}")
+    private int minSamples;
+
+    @Value("${voyageconnect.hedging.min-delay-ms:50}")
+    private long minDelayMs;
+
+    public ProviderHedger(ProviderHosts providerHosts, ProviderRateLimiter providerRateLimiter,
+                          ProviderGuard providerGuard, MeterRegistry meterRegistry,
+                          @Value("${voyageconnect.hedging.max-threads:64}") int maxThreads) {
+        this.providerHosts = providerHosts;
+        this.providerRateLimiter = providerRateLimiter;
+        this.providerGuard = providerGuard;
+        this.meterRegistry = meterRegistry;
+        // No queue: when every hedge thread is busy the call runs unhedged on the caller's thread
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.hedgePool = new ThreadPoolExecutor(0, maxThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+            Thread thread = new Thread(r, "hedge-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Request factory that hedges eligible calls made through the given one
+     */
+    public ClientHttpRequestFactory wrap(ClientHttpRequestFactory delegate) {
+        if (!enabled) {
+            return delegate;
+        }
+        // Backups skip the rate limiter interceptor (they take a token without waiting) but not the guard
+        ClientHttpRequestFactory backupFactory = new InterceptingClientHttpRequestFactory(delegate, List.of(providerGuard));
+        return (uri, method) -> new HedgedRequest(uri, method, delegate, backupFactory);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hedgePool.shutdownNow();
+    }
+
+    private ClientHttpResponse hedgedExecute(URI uri, HttpMethod method, HttpHeaders headers, byte[] body,
+                                             ClientHttpRequestFactory delegate, ClientHttpRequestFactory backupFactory)
+            throws IOException {
+        String provider = providerHosts.providerName(uri.getHost());
+        if (!isEligible(provider, uri, method, body)) {
+            return send(delegate, uri, method, headers, body);
+        }
+        String endpoint = provider + uri.getPath();
+        LatencyWindow window = latencies.computeIfAbsent(endpoint, e -> new LatencyWindow(windowSize));
+        HedgeBudget budget = budgets.computeIfAbsent(provider, p -> new HedgeBudget(budgetPercent / 100, maxBurst));
+        budget.deposit();
+
+        CompletableFuture<ClientHttpResponse> primary;
+        try {
+            primary = timedAttempt(delegate, uri, method, headers, body, window);
+        } catch (RejectedExecutionException e) {
+            return send(delegate, uri, method, headers, body);
+        }
+
+        long p95 = window.percentile(0.95, minSamples);
+        if (p95 < 0) {
+            return await(primary);
+        }
+        long delayMs = Math.max(minDelayMs, p95);
+        try {
+            return primary.get(delayMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Slower than p95: hedge below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            closeWhenDone(primary);
+            throw new InterruptedIOException("Interrupted waiting for " + endpoint);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+
+        if (!budget.tryWithdraw()) {
+            count(provider, "skipped_budget");
+            return await(primary);
+        }
+        if (!providerRateLimiter.tryAcquire(provider)) {
+            count(provider, "skipped_quota");
+            return await(primary);
+        }
+        CompletableFuture<ClientHttpResponse> backup;
+        try {
+            backup = timedAttempt(backupFactory, uri, method, headers, body, window);
+        } catch (RejectedExecutionException e) {
+            return await(primary);
+        }
+        count(provider, "sent");
+        log.debug("Hedging {} after {} ms", endpoint, delayMs);
+
+        ClientHttpResponse response = await(firstSuccessful(primary, backup));
+        if (backup.isDone() && !backup.isCompletedExceptionally() && backup.join() == response) {
+            count(provider, "won");
+        }
+        return response;
+    }
+
+    private boolean isEligible(String provider, URI uri, HttpMethod method, byte[] body) {
+        if (method != HttpMethod.GET || body.length > 0
+                || RequestPriority.current() != RequestPriority.INTERACTIVE || !Arrays.asList(providers).contains(provider)) {
+            return false;
+        }
+        String path = uri.getPath();
+        return path != null && Arrays.stream(paths).anyMatch(path::startsWith);
+    }
+
+    private CompletableFuture<ClientHttpResponse> timedAttempt(ClientHttpRequestFactory factory, URI uri, HttpMethod method,
+                                                               HttpHeaders headers, byte[] body, LatencyWindow window) {
+        CompletableFuture<ClientHttpResponse> attempt = new CompletableFuture<>();
+        hedgePool.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                ClientHttpResponse response = send(factory, uri, method, headers, body);
+                window.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                attempt.complete(response);
+            } catch (Throwable e) {
+                attempt.completeExceptionally(e);
+            }
+        });
+        return attempt;
+    }
+
+    private static ClientHttpResponse send(ClientHttpRequestFactory factory, URI uri, HttpMethod method,
+                                           HttpHeaders headers, byte[] body) throws IOException {
+        ClientHttpRequest request = factory.createRequest(uri, method);
+        request.getHeaders().putAll(headers);
+        if (body.length > 0) {
+            request.getBody().write(body);
+        }
+        return request.execute();
+    }
+
+    /**
+     * Completes with the first response; the later one is closed. Fails only when both attempts fail
+     */
+    private static CompletableFuture<ClientHttpResponse> firstSuccessful(CompletableFuture<ClientHttpResponse> primary,
+                                                                         CompletableFuture<ClientHttpResponse> backup) {
+        CompletableFuture<ClientHttpResponse> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        AtomicReference<Throwable> primaryFailure = new AtomicReference<>();
+        for (CompletableFuture<ClientHttpResponse> attempt : List.of(primary, backup)) {
+            attempt.whenComplete((response, error) -> {
+                if (error == null) {
+                    if (!winner.complete(response)) {
+                        response.close();
+                    }
+                    return;
+                }
+                if (attempt == primary) {
+                    primaryFailure.set(error);
+                }
+                if (failures.incrementAndGet() == 2) {
+                    winner.completeExceptionally(primaryFailure.get() != null ? primaryFailure.get() : error);
+                }
+            });
+        }
+        return winner;
+    }
+
+    private static ClientHttpResponse await(CompletableFuture<ClientHttpResponse> attempt) throws IOException {
+        try {
+            return attempt.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            closeWhenDone(attempt);
+            throw new InterruptedIOException("Interrupted waiting for provider response");
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static void closeWhenDone(CompletableFuture<ClientHttpResponse> attempt) {
+        attempt.thenAccept(ClientHttpResponse::close);
+    }
+
+    private static IOException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof IOException io) {
+            return io;
+        }
+        if (cause instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        return new IOException(cause);
+    }
+
+    private void count(String provider, String outcome) {
+        Counter.builder("provider.hedge")
+                .description("Hedged provider requests by outcome")
+                .tag("provider", provider)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Request created by the hedging factory: buffers headers and body, decides on execute
+     */
+    private final class HedgedRequest extends AbstractClientHttpRequest {
+        private final URI uri;
+        private final HttpMethod method;
+        private final ClientHttpRequestFactory delegate;
+        private final ClientHttpRequestFactory backupFactory;
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(0);
+
+        private HedgedRequest(URI uri, HttpMethod method, ClientHttpRequestFactory delegate,
+                              ClientHttpRequestFactory backupFactory) {
+            this.uri = uri;
+            this.method = method;
+            this.delegate = delegate;
+            this.backupFactory = backupFactory;
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return method;
+        }
+
+        @Override
+        public URI getURI() {
+            return uri;
+        }
+
+        @Override
+        protected OutputStream getBodyInternal(HttpHeaders headers) {
+            return body;
+        }
+
+        @Override
+        protected ClientHttpResponse executeInternal(HttpHeaders headers) throws IOException {
+            return hedgedExecute(uri, method, headers, body.toByteArray(), delegate, backupFactory);
+        }
+    }
+
+    /**
+     * Last N latencies of one endpoint (ring buffer)
+     */
+    static final class LatencyWindow {
+        private final long[] samples;
+        private int next;
+        private int count;
+
+        LatencyWindow(int size) {
+            this.samples = new long[size];
+        }
+
+        synchronized void record(long latencyMs) {
+            samples[next] = latencyMs;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        /**
+         * @return the percentile in ms, or -1 with fewer than minSamples latencies
+         */
+        long percentile(double quantile, int minSamples) {
+            long[] sorted;
+            synchronized (this) {
+                if (count < Math.max(1, minSamples)) {
+                    return -1;
+                }
+                sorted = Arrays.copyOf(samples, count);
+            }
+            Arrays.sort(sorted);
+            return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)];
+        }
+    }
+
+    /**
+     * Backups earned per eligible call (ratio), spent one per hedge, capped at maxBurst
+     */
+    static final class HedgeBudget {
+        private final double ratio;
+        private final double maxBurst;
+        private double balance;
+
+        HedgeBudget(double ratio, double maxBurst) {
+            this.ratio = ratio;
+            this.maxBurst = maxBurst;
+        }
+
+        synchronized void deposit() {
+            balance = Math.min(maxBurst, balance + ratio);
+        }
+
+        synchronized boolean tryWithdraw() {
+            if (balance < 1) {
+                return false;
+            }
+            balance -= 1;
+            return true;
+        }
+    }
+}
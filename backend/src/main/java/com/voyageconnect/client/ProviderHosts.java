@@ -0,0 +1,36 @@
+package com.voyageconnect.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+
+/**
+ * Maps upstream hosts to the provider names used in metrics and configuration
+ * The Amadeus and RapidAPI Booking hosts are "amadeus" / "booking"; any other host keeps its name
+ */
+@Component
+public class ProviderHosts {
+
+    private final String amadeusHost;
+    private final String bookingHost;
+
+    public ProviderHosts(@Value("${amadeus.api.base-url:https://test.api.amadeus.com}") String amadeusBaseUrl,
+                         @Value("${rapidapi.booking.host:booking-com.p.rapidapi.com}") String bookingHost) {
+        this.amadeusHost = URI.create(amadeusBaseUrl).getHost();
+        this.bookingHost = bookingHost;
+    }
+
+    public String providerName(String host) {
+        if (host == null) {
+            return "unknown";
+        }
+        if (host.equalsIgnoreCase(amadeusHost)) {
+            return "amadeus";
+        }
+        if (host.equalsIgnoreCase(bookingHost)) {
+            return "booking";
+        }
+        return host;
+    }
+}
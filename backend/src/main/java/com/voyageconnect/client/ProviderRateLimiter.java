@@ -0,0 +1,287 @@
+package com.voyageconnect.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Client-side token-bucket rate limiter per provider API key, with priority lanes
+ * - Each provider with a configured quota (voyageconnect.rate-limit.<provider>.requests-per-second / burst)
+ *   gets one bucket; providers without a quota are not limited
+ * - Callers queue briefly for a token (max wait per lane) instead of being rejected outright,
+ *   and are rejected with ProviderUnavailableException once their wait runs out
+ * - Lanes (RequestPriority): a token only goes to a lane when no higher-priority lane is waiting, so
+ *   interactive searches are served before background warmups, and warmups before health probes
+ * - A 429 empties the bucket and pauses it for Retry-After (or one refill period), so a burst does not
+ *   spend more quota on calls the provider will reject anyway
+ * Metrics: provider.rate.limit{provider,priority,outcome=immediate|queued|rejected},
+ * provider.rate.limit.tokens{provider}
+ */
+@Component
+@Slf4j
+public class ProviderRateLimiter implements ClientHttpRequestInterceptor {
+
+    private static final Bucket UNLIMITED = new Bucket(null, 0, 0);
+
+    private final Environment environment;
+    private final ProviderHosts providerHosts;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Map<RequestPriority, Long> maxWaitMs = new EnumMap<>(RequestPriority.class);
+
+    public ProviderRateLimiter(Environment environment, ProviderHosts providerHosts, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.providerHosts = providerHosts;
+        this.meterRegistry = meterRegistry;
+        maxWaitMs.put(RequestPriority.INTERACTIVE,
+                environment.getProperty("voyageconnect.rate-limit.max-wait-ms.interactive", Long.class, 1500L));
+        maxWaitMs.put(RequestPriority.WARMUP,
+                environment.getProperty("voyageconnect.rate-limit.max-wait-ms.warmup", Long.class, 5000L));
+        maxWaitMs.put(RequestPriority.PROBE,
+                environment.getProperty("voyageconnect.rate-limit.max-wait-ms.probe", Long.class, 500L));
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String provider = providerHosts.providerName(request.getURI().getHost());
+        Bucket bucket = buckets.computeIfAbsent(provider, this::newBucket);
+        if (bucket == UNLIMITED) {
+            return execution.execute(request, body);
+        }
+
+        RequestPriority priority = RequestPriority.current();
+        Outcome outcome;
+        try {
+            outcome = bucket.acquire(priority, maxWaitMs.get(priority));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = Outcome.REJECTED;
+        }
+        count(provider, priority, outcome);
+        if (outcome == Outcome.REJECTED) {
+            throw new ProviderUnavailableException(provider, "rate limit reached (" + priority + ")");
+        }
+
+        ClientHttpResponse response = execution.execute(request, body);
+        if (response.getStatusCode().value() == 429) {
+            onTooManyRequests(provider, response.getHeaders());
+        }
+        return response;
+    }
+
+    /**
+     * Non-blocking token request for reactive callers (ProviderExchangeFilter), which retry on a timer
+     * instead of parking a thread; reactive searches run in the interactive lane
+     */
+    public boolean tryAcquire(String provider) {
+        Bucket bucket = buckets.computeIfAbsent(provider, this::newBucket);
+        if (bucket == UNLIMITED) {
+            return true;
+        }
+        Outcome outcome;
+        try {
+            outcome = bucket.acquire(RequestPriority.INTERACTIVE, 0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = Outcome.REJECTED;
+        }
+        if (outcome != Outcome.REJECTED) {
+            count(provider, RequestPriority.INTERACTIVE, outcome);
+        }
+        return outcome != Outcome.REJECTED;
+    }
+
+    /**
+     * Longest time an interactive caller may queue for a token
+     */
+    public long getInteractiveMaxWaitMs() {
+        return maxWaitMs.get(RequestPriority.INTERACTIVE);
+    }
+
+    /**
+     * Apply a 429 answer to the provider's bucket (see intercept)
+     */
+    public void onTooManyRequests(String provider, HttpHeaders headers) {
+        Bucket bucket = buckets.get(provider);
+        if (bucket == null || bucket == UNLIMITED) {
+            return;
+        }
+        long pauseMs = retryAfterMs(headers, bucket.refillPeriodMs());
+        bucket.pause(pauseMs);
+        log.warn("✗ {} answered 429, pausing its rate limiter for {} ms", provider, pauseMs);
+    }
+
+    private Bucket newBucket(String provider) {
+        Double requestsPerSecond = environment.getProperty(
+                "voyageconnect.rate-limit." + provider + ".requests-per-second", Double.class);
+        if (requestsPerSecond == null || requestsPerSecond <= 0) {
+            return UNLIMITED;
+        }
+        int burst = environment.getProperty("voyageconnect.rate-limit." + provider + ".burst", Integer.class,
+                (int) Math.max(1, Math.ceil(requestsPerSecond)));
+        Bucket bucket = new Bucket(provider, requestsPerSecond, burst);
+        Gauge.builder("provider.rate.limit.tokens", bucket, Bucket::availableTokens)
+                .description("Tokens currently available in the provider rate limiter")
+                .tag("provider", provider)
+                .register(meterRegistry);
+        log.info("✓ Rate limiter for {}: {} req/s, burst {}", provider, requestsPerSecond, burst);
+        return bucket;
+    }
+
+    private void count(String provider, RequestPriority priority, Outcome outcome) {
+        Counter.builder("provider.rate.limit")
+                .description("Outbound calls by rate limiter outcome")
+                .tag("provider", provider)
+                .tag("priority", priority.name().toLowerCase())
+                .tag("outcome", outcome.name().toLowerCase())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static long retryAfterMs(HttpHeaders headers, long defaultMs) {
+        String retryAfter = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (retryAfter != null) {
+            try {
+                return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()));
+            } catch (NumberFormatException ignored) {
+                // HTTP-date form: fall back to one refill period
+            }
+        }
+        return defaultMs;
+    }
+
+    enum Outcome { IMMEDIATE, QUEUED, REJECTED }
+
+    /**
+     * Token bucket with per-lane waiter counts; waiters park on a Condition (no monitor pinning)
+     */
+    static final class Bucket {
+        private final String provider;
+        private final double tokensPerNano;
+        private final int capacity;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition tokensChanged = lock.newCondition();
+        private final int[] waiting = new int[RequestPriority.values().length];
+
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+        private long pausedUntil = lastRefill;
+
+        Bucket(String provider, double requestsPerSecond, int capacity) {
+            this.provider = provider;
+            this.tokensPerNano = requestsPerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.capacity = capacity;
+            this.tokens = capacity;
+        }
+
+        Outcome acquire(RequestPriority priority, long maxWaitMs) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+            lock.lock();
+            try {
+                refill();
+                if (tokens >= 1 && !higherLaneWaiting(priority)) {
+                    tokens -= 1;
+                    return Outcome.IMMEDIATE;
+                }
+                waiting[priority.ordinal()]++;
+                try {
+                    while (true) {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            return Outcome.REJECTED;
+                        }
+                        tokensChanged.awaitNanos(Math.min(remaining, nanosUntilNextToken()));
+                        refill();
+                        if (tokens >= 1 && !higherLaneWaiting(priority)) {
+                            tokens -= 1;
+                            return Outcome.QUEUED;
+                        }
+                    }
+                } finally {
+                    waiting[priority.ordinal()]--;
+                    // A lower lane may now be allowed to take a token
+                    tokensChanged.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void pause(long pauseMs) {
+            lock.lock();
+            try {
+                tokens = 0;
+                long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pauseMs);
+                if (until - pausedUntil > 0) {
+                    pausedUntil = until;
+                }
+                lastRefill = pausedUntil;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long refillPeriodMs() {
+            return Math.max(1, (long) (1 / tokensPerNano / TimeUnit.MILLISECONDS.toNanos(1)));
+        }
+
+        double availableTokens() {
+            lock.lock();
+            try {
+                refill();
+                return Math.floor(tokens);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean higherLaneWaiting(RequestPriority priority) {
+            for (int lane = 0; lane < priority.ordinal(); lane++) {
+                if (waiting[lane] > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            if (now - pausedUntil < 0 || now - lastRefill <= 0) {
+                return;
+            }
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+        }
+
+        private long nanosUntilNextToken() {
+            long now = System.nanoTime();
+            if (now - pausedUntil < 0) {
+                return pausedUntil - now + (long) (1 / tokensPerNano);
+            }
+            // At least 1 ms, also when a token is available but reserved for a higher lane
+            return Math.max(TimeUnit.MILLISECONDS.toNanos(1), (long) ((1 - tokens) / tokensPerNano));
+        }
+
+        @Override
+        public String toString() {
+            return "Bucket[" + provider + "]";
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.voyageconnect.client;
+
+import java.io.IOException;
+
+/**
+ * Outbound call rejected by ProviderGuard without reaching the provider (open circuit or full bulkhead)
+ */
+public class ProviderUnavailableException extends IOException {
+
+    private final String provider;
+
+    public ProviderUnavailableException(String provider, String reason) {
+        super("Provider " + provider + " unavailable: " + reason);
+        this.provider = provider;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+}
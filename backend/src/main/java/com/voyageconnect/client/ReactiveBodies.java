@@ -0,0 +1,35 @@
+package com.voyageconnect.client;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Bridges WebClient bodies to the InputStream parsers the services already use (see JsonStreams)
+ * The body buffers are joined without the codec in-memory limit and released once parsed
+ */
+public final class ReactiveBodies {
+
+    private ReactiveBodies() {
+    }
+
+    public static <T> Mono<T> parse(Flux<DataBuffer> body, BodyParser<T> parser) {
+        return DataBufferUtils.join(body).map(buffer -> {
+            try (InputStream in = buffer.asInputStream(true)) {
+                return parser.parse(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    public interface BodyParser<T> {
+        T parse(InputStream body) throws IOException;
+    }
+}
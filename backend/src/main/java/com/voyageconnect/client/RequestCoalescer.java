@@ -0,0 +1,108 @@
+package com.voyageconnect.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Single-flight deduplication of outbound provider calls
+ * Concurrent callers using the same provider + normalized request key share one outbound call:
+ * the first caller executes it, the others wait for and receive the same result (or exception).
+ * The key is released as soon as the call completes, so nothing is cached here.
+ * Results are shared between callers and must therefore be treated as read-only.
+ * Followers wait at most max-wait-ms for the leader, then fail with a TimeoutException.
+ * Metrics: provider.calls{provider,outcome=executed|collapsed}
+ */
+@Component
+@Slf4j
+public class RequestCoalescer {
+
+    private final MeterRegistry meterRegistry;
+    private final long maxWaitMs;
+    private final Map<String, ProviderFlights> providers = new ConcurrentHashMap<>();
+
+    public RequestCoalescer(MeterRegistry meterRegistry,
+                            @Value("${voyageconnect.providers.coalescer.max-wait-ms:30000}") long maxWaitMs) {
+        this.meterRegistry = meterRegistry;
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    /**
+     * Run call, or join an identical call already in flight for this provider and key
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V execute(String provider, String key, Callable<V> call) throws Exception {
+        ProviderFlights flights = providers.computeIfAbsent(provider, this::newProvider);
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = flights.inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            flights.collapsed.increment();
+            log.debug("Coalesced {} call for key {}", provider, key);
+            return (V) await(existing, provider, key);
+        }
+
+        flights.executed.increment();
+        try {
+            V value = call.call();
+            mine.complete(value);
+            return value;
+        } catch (Throwable t) {
+            // Errors too: a leader that never completes would block its followers until they time out
+            mine.completeExceptionally(t);
+            throw t;
+        } finally {
+            flights.inFlight.remove(key, mine);
+        }
+    }
+
+    private Object await(CompletableFuture<Object> leader, String provider, String key) throws Exception {
+        try {
+            return leader.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new TimeoutException("Coalesced " + provider + " call for key " + key + " still running after "
+                    + maxWaitMs + " ms");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            throw e;
+        }
+    }
+
+    private ProviderFlights newProvider(String provider) {
+        return new ProviderFlights(
+                callCounter(provider, "executed"),
+                callCounter(provider, "collapsed"));
+    }
+
+    private Counter callCounter(String provider, String outcome) {
+        return Counter.builder("provider.calls")
+                .description("Outbound provider calls, executed vs collapsed into an identical in-flight call")
+                .tag("provider", provider)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static final class ProviderFlights {
+        private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+        private final Counter executed;
+        private final Counter collapsed;
+
+        private ProviderFlights(Counter executed, Counter collapsed) {
+            this.executed = executed;
+            this.collapsed = collapsed;
+        }
+    }
+}
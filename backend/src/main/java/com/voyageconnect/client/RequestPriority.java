@@ -0,0 +1,59 @@
+package com.voyageconnect.client;
+
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Priority lane of the current outbound provider call, used by ProviderRateLimiter
+ * Calls are INTERACTIVE (user searches) unless the caller runs inside callAs(WARMUP / PROBE, ...).
+ * The lane is bound to the calling thread; TASK_DECORATOR carries it over to provider executor tasks.
+ */
+public enum RequestPriority {
+    INTERACTIVE,
+    WARMUP,
+    PROBE;
+
+    private static final ThreadLocal<RequestPriority> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Propagates the submitting thread's lane to executor tasks
+     */
+    public static final TaskDecorator TASK_DECORATOR = task -> {
+        RequestPriority priority = current();
+        return () -> runAs(priority, task);
+    };
+
+    public static RequestPriority current() {
+        RequestPriority priority = CURRENT.get();
+        return priority != null ? priority : INTERACTIVE;
+    }
+
+    public static <V> V callAs(RequestPriority priority, Callable<V> call) throws Exception {
+        RequestPriority previous = CURRENT.get();
+        CURRENT.set(priority);
+        try {
+            return call.call();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    public static void runAs(RequestPriority priority, Runnable task) {
+        RequestPriority previous = CURRENT.get();
+        CURRENT.set(priority);
+        try {
+            task.run();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    private static void restore(RequestPriority previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
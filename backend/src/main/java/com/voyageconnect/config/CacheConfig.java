@@ -0,0 +1,50 @@
+package com.voyageconnect.config;
+
+import com.voyageconnect.cache.FlightSearchKey;
+import com.voyageconnect.cache.HttpCaching;
+import com.voyageconnect.cache.StaleWhileRevalidateCache;
+import com.voyageconnect.dto.FlightDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Provider response caches
+ * Background revalidation runs on the provider executor
+ */
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public StaleWhileRevalidateCache<FlightSearchKey, List<FlightDTO>> flightOfferCache(
+            @Value("${voyageconnect.cache.flight-offers.max-entries:1000}") int maxEntries,
+            @Value("${voyageconnect.cache.flight-offers.fresh-seconds:120}") long freshSeconds,
+            @Value("${voyageconnect.cache.flight-offers.stale-seconds:900}") long staleSeconds,
+            @Qualifier("providerExecutor") Executor providerExecutor,
+            MeterRegistry meterRegistry) {
+        return new StaleWhileRevalidateCache<>("flight-offers", maxEntries,
+                Duration.ofSeconds(freshSeconds), Duration.ofSeconds(staleSeconds),
+                providerExecutor, meterRegistry);
+    }
+
+    /**
+     * Transformed Amadeus hotel lists per city code, with their ETag
+     */
+    @Bean
+    public StaleWhileRevalidateCache<String, HttpCaching.JsonBody> amadeusHotelCache(
+            @Value("${voyageconnect.cache.amadeus-hotels.max-entries:200}") int maxEntries,
+            @Value("${voyageconnect.cache.amadeus-hotels.fresh-seconds:600}") long freshSeconds,
+            @Value("${voyageconnect.cache.amadeus-hotels.stale-seconds:3600}") long staleSeconds,
+            @Qualifier("providerExecutor") Executor providerExecutor,
+            MeterRegistry meterRegistry) {
+        return new StaleWhileRevalidateCache<>("amadeus-hotels", maxEntries,
+                Duration.ofSeconds(freshSeconds), Duration.ofSeconds(staleSeconds),
+                providerExecutor, meterRegistry);
+    }
+}
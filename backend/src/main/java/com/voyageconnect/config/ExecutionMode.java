@@ -0,0 +1,80 @@
+package com.voyageconnect.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Thread model for request handling and blocking provider I/O (voyageconnect.execution.mode)
+ * - platform: Tomcat's worker pool and the bounded provider executor
+ * - virtual: one virtual thread per request and per provider task, when the JDK supports it
+ *   (JDK 21+, or 19/20 with --enable-preview); otherwise falls back to platform with a warning
+ * - auto: virtual when supported, platform otherwise
+ * The project compiles for Java 17, so the virtual-thread API is reached by reflection.
+ */
+@Slf4j
+public final class ExecutionMode {
+
+    private final boolean virtual;
+
+    private ExecutionMode(boolean virtual) {
+        this.virtual = virtual;
+    }
+
+    public static ExecutionMode resolve(String setting) {
+        String mode = setting == null ? "auto" : setting.trim().toLowerCase();
+        if ("platform".equals(mode)) {
+            log.info("✓ Execution mode: platform threads");
+            return new ExecutionMode(false);
+        }
+        boolean supported = virtualThreadFactory("probe-") != null;
+        if (supported) {
+            log.info("✓ Execution mode: virtual threads ({})", mode);
+        } else if ("virtual".equals(mode)) {
+            log.warn("✗ Virtual threads requested but not supported by Java {}, using platform threads",
+                Runtime.version().feature());
+        } else {
+            log.info("✓ Execution mode: platform threads (virtual threads not supported by Java {})",
+                Runtime.version().feature());
+        }
+        return new ExecutionMode(supported);
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Executor starting one virtual thread per task, named namePrefix + counter
+     * Only valid when isVirtual()
+     */
+    public ExecutorService newVirtualThreadPerTaskExecutor(String namePrefix) {
+        ThreadFactory factory = virtualThreadFactory(namePrefix);
+        if (!virtual || factory == null) {
+            throw new IllegalStateException("Virtual threads are not available");
+        }
+        try {
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                .invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads are not available", e);
+        }
+    }
+
+    /**
+     * Thread.ofVirtual().name(namePrefix, 0).factory(), or null when the JDK has no (enabled) virtual threads
+     */
+    private static ThreadFactory virtualThreadFactory(String namePrefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            // No such API before JDK 19; preview-only (UnsupportedOperationException) on 19/20
+            return null;
+        }
+    }
+}
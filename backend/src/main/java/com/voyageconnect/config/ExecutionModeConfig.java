@@ -0,0 +1,33 @@
+package com.voyageconnect.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Applies the execution mode (see ExecutionMode) to Tomcat
+ * In virtual mode each request runs on its own virtual thread, so a request waiting on Amadeus or RapidAPI
+ * no longer holds one of server.tomcat.threads.max workers; server.tomcat.max-connections and the
+ * per-provider bulkheads (ProviderGuard) become the concurrency limits.
+ * The provider executor follows the same mode (ProviderExecutorConfig).
+ */
+@Configuration
+public class ExecutionModeConfig {
+
+    @Bean
+    public ExecutionMode executionMode(@Value("${voyageconnect.execution.mode:auto}") String mode) {
+        return ExecutionMode.resolve(mode);
+    }
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> executionModeTomcatCustomizer(ExecutionMode executionMode) {
+        return factory -> {
+            if (executionMode.isVirtual()) {
+                factory.addProtocolHandlerCustomizers(protocolHandler ->
+                    protocolHandler.setExecutor(executionMode.newVirtualThreadPerTaskExecutor("http-vt-")));
+            }
+        };
+    }
+}
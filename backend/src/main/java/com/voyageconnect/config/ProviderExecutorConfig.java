@@ -0,0 +1,52 @@
+package com.voyageconnect.config;
+
+import com.voyageconnect.client.RequestPriority;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Bounded executor for concurrent provider lookups (Amadeus, RapidAPI)
+ * Fan-out callers submit one task per upstream call and wait with an overall deadline.
+ * The pool runs pool-size threads from the first burst (a ThreadPoolExecutor only grows past its core size
+ * once the queue is full, so core and max are the same); idle threads time out. The queue is kept small:
+ * when it is full new tasks are rejected instead of piling up behind slow providers
+ * In virtual execution mode (see ExecutionMode) each task gets its own virtual thread instead; concurrency
+ * per provider is then bounded by the ProviderGuard bulkheads and the HTTP connection pool
+ */
+@Configuration
+public class ProviderExecutorConfig {
+
+    @Value("${voyageconnect.providers.executor.pool-size:32}")
+    private int poolSize;
+
+    @Value("${voyageconnect.providers.executor.queue-capacity:32}")
+    private int queueCapacity;
+
+    @Bean(name = "providerExecutor")
+    public AsyncTaskExecutor providerExecutor(ExecutionMode executionMode) {
+        if (executionMode.isVirtual()) {
+            ConcurrentTaskExecutor executor =
+                    new ConcurrentTaskExecutor(executionMode.newVirtualThreadPerTaskExecutor("provider-vt-"));
+            executor.setTaskDecorator(RequestPriority.TASK_DECORATOR);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("provider-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        // Tasks run in the rate-limiter lane of the thread that submitted them
+        executor.setTaskDecorator(RequestPriority.TASK_DECORATOR);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,20 +1,194 @@
 package com.voyageconnect.config;
 
+import com.voyageconnect.client.ProviderGuard;
+import com.voyageconnect.client.ProviderHedger;
+import com.voyageconnect.client.ProviderRateLimiter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.InterceptingClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
-import java.time.Duration;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
 
+/**
+ * Outbound HTTP configuration shared by all provider clients (Amadeus, RapidAPI, REST Countries)
+ * - Pooled Apache HttpClient 5 engine: connections are kept alive and reused, so calls
+ *   no longer pay a TCP+TLS handshake each time
+ * - Dedicated per-host pool size for the provider hosts listed in voyageconnect.http-client.pooled-hosts
+ * - gzip/deflate response decoding (HttpClient sends Accept-Encoding and decodes transparently)
+ * - Pool saturation gauges per host: http.client.pool.{leased,available,pending,max}{host=...}
+ * - Per-provider rate limiter with priority lanes (ProviderRateLimiter) and bulkhead / circuit breaker
+ *   (ProviderGuard) on every outbound call
+ * - Optional hedging of slow idempotent provider GETs (ProviderHedger)
+ */
 @Configuration
 public class RestTemplateConfig {
 
+    @Value("${voyageconnect.http-client.max-total:100}")
+    private int maxTotal;
+
+    @Value("${voyageconnect.http-client.max-per-route:10}")
+    private int maxPerRoute;
+
+    @Value("${voyageconnect.http-client.max-per-host:40}")
+    private int maxPerHost;
+
+    @Value("${voyageconnect.http-client.pooled-hosts:test.api.amadeus.com,restcountries.com}")
+    private String[] pooledHosts;
+
+    @Value("${voyageconnect.http-client.connect-timeout-ms:10000}")
+    private long connectTimeoutMs;
+
+    @Value("${voyageconnect.http-client.read-timeout-ms:10000}")
+    private long readTimeoutMs;
+
+    @Value("${voyageconnect.http-client.pool-wait-timeout-ms:2000}")
+    private long poolWaitTimeoutMs;
+
+    @Value("${voyageconnect.http-client.keep-alive-seconds:60}")
+    private long keepAliveSeconds;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager httpConnectionManager() {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        // Re-check connections that sat idle in the pool before reusing them
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .build();
+
+        // Provider hosts get a larger share of the pool than arbitrary routes
+        for (String host : pooledHosts) {
+            connectionManager.setMaxPerRoute(httpsRoute(host), maxPerHost);
+        }
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager httpConnectionManager) {
+        // Content compression is enabled by default: gzip/deflate bodies are decoded on the fly
+        return HttpClients.custom()
+                .setConnectionManager(httpConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        // Fail fast when the pool is saturated instead of queueing for the full read timeout
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolWaitTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        // Used when the server does not send a Keep-Alive header
+                        .setConnectionKeepAlive(TimeValue.ofSeconds(keepAliveSeconds))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(keepAliveSeconds))
+                .build();
+    }
+
+    /**
+     * Client for streamed pass-through (see BookingApiService#openHotelsByCity)
+     * Shares the connection pool but does not decode gzip, so compressed provider bodies can be
+     * forwarded to the browser as-is
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient passThroughHttpClient(PoolingHttpClientConnectionManager httpConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(httpConnectionManager)
+                // The pool is owned (and closed) by the main httpClient bean
+                .setConnectionManagerShared(true)
+                .disableContentCompression()
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolWaitTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setConnectionKeepAlive(TimeValue.ofSeconds(keepAliveSeconds))
+                        .build())
+                .build();
+    }
+
+    /**
+     * Request factory for streamed pass-through, behind the same rate limiter and guard as the RestTemplate
+     */
+    @Bean
+    public ClientHttpRequestFactory passThroughRequestFactory(
+            @Qualifier("passThroughHttpClient") CloseableHttpClient passThroughHttpClient,
+            ProviderRateLimiter providerRateLimiter, ProviderGuard providerGuard) {
+        return new InterceptingClientHttpRequestFactory(
+                new HttpComponentsClientHttpRequestFactory(passThroughHttpClient), List.of(providerRateLimiter, providerGuard));
+    }
+
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
+    public RestTemplate restTemplate(RestTemplateBuilder builder, @Qualifier("httpClient") CloseableHttpClient httpClient,
+                                     ProviderRateLimiter providerRateLimiter, ProviderGuard providerGuard,
+                                     ProviderHedger providerHedger) {
         return builder
-                .setConnectTimeout(Duration.ofSeconds(10))
-                .setReadTimeout(Duration.ofSeconds(10))
+                // The hedger sits below the interceptors; a backup request takes its own token and guard slot
+                .requestFactory(() -> providerHedger.wrap(new HttpComponentsClientHttpRequestFactory(httpClient)))
+                // Quota-aware rate limiting first, then the per-provider bulkhead and circuit breaker
+                .additionalInterceptors(providerRateLimiter, providerGuard)
                 .build();
     }
+
+    /**
+     * Per-host pool gauges, e.g. http.client.pool.pending{host="test.api.amadeus.com"}
+     * A non-zero pending count means callers are waiting for a connection (pool saturated)
+     */
+    @Bean
+    public MeterBinder httpClientPoolMetrics(PoolingHttpClientConnectionManager httpConnectionManager) {
+        return registry -> {
+            registerPoolGauges(registry, httpConnectionManager, "all", null);
+            for (String host : pooledHosts) {
+                registerPoolGauges(registry, httpConnectionManager, host, httpsRoute(host));
+            }
+        };
+    }
+
+    private void registerPoolGauges(MeterRegistry registry,
+                                    PoolingHttpClientConnectionManager connectionManager,
+                                    String host, HttpRoute route) {
+        ToDoubleFunction<PoolingHttpClientConnectionManager> leased = cm -> stats(cm, route).getLeased();
+        ToDoubleFunction<PoolingHttpClientConnectionManager> available = cm -> stats(cm, route).getAvailable();
+        ToDoubleFunction<PoolingHttpClientConnectionManager> pending = cm -> stats(cm, route).getPending();
+        ToDoubleFunction<PoolingHttpClientConnectionManager> max = cm -> stats(cm, route).getMax();
+
+        Gauge.builder("http.client.pool.leased", connectionManager, leased)
+                .description("Connections currently in use").tag("host", host).register(registry);
+        Gauge.builder("http.client.pool.available", connectionManager, available)
+                .description("Idle connections ready for reuse").tag("host", host).register(registry);
+        Gauge.builder("http.client.pool.pending", connectionManager, pending)
+                .description("Requests waiting for a connection").tag("host", host).register(registry);
+        Gauge.builder("http.client.pool.max", connectionManager, max)
+                .description("Maximum connections allowed").tag("host", host).register(registry);
+    }
+
+    private static PoolStats stats(PoolingHttpClientConnectionManager connectionManager, HttpRoute route) {
+        return route == null ? connectionManager.getTotalStats() : connectionManager.getStats(route);
+    }
+
+    /**
+     * Route key as planned by HttpClient for https://host (default port, secure)
+     */
+    private static HttpRoute httpsRoute(String host) {
+        return new HttpRoute(new HttpHost("https", host.trim(), 443), null, true);
+    }
 }
@@ -0,0 +1,12 @@
+package com.voyageconnect.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (cache and snapshot refreshers)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -25,8 +25,8 @@ import java.util.List;
  * Spring Security 6 Configuration
  * - JWT-based authentication
  * - Stateless session management
- * - Public endpoints: /api/auth/**, /api/amadeus/**, /api/destinations/**, /api/flights/**, /api/hotels/**
- * - Protected endpoints: /api/reservations/**, /api/admin/**
+ * - Public endpoints: /api/auth/**, /api/amadeus/**, /api/destinations/**, /api/flights/**, /api/hotels/**, /api/search/**
+ * - Protected endpoints: /api/reservations/**, /api/admin/**, /actuator/** (metrics, ADMIN only)
  * - CORS enabled for http://localhost:4200
  */
 @Configuration
@@ -67,10 +67,13 @@ public class SecurityConfig {
                 .requestMatchers("/api/destinations/**").permitAll()
                 .requestMatchers("/api/flights/**").permitAll()
                 .requestMatchers("/api/hotels/**").permitAll()
+                .requestMatchers("/api/search/**").permitAll()
                 .requestMatchers("/api/health/**").permitAll()
+                .requestMatchers("/actuator/health").permitAll()
                 
                 // Admin endpoints - ADMIN role required
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 
                 // User endpoints - authentication required
                 .requestMatchers("/api/reservations/**").authenticated()
@@ -0,0 +1,62 @@
+package com.voyageconnect.config;
+
+import com.voyageconnect.client.ProviderExchangeFilter;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Non-blocking provider client (WebClient on Reactor Netty) used by the reactive service variants
+ * and /api/search/stream
+ * - Its own pooled connections, sized and timed like the RestTemplate pool (voyageconnect.http-client.*)
+ * - gzip responses, same rate limiter / bulkhead / circuit breaker via ProviderExchangeFilter
+ * In-flight upstream calls hold no threads: the Netty event loop handles all of them
+ */
+@Configuration
+public class WebClientConfig {
+
+    @Value("${voyageconnect.http-client.max-total:100}")
+    private int maxTotal;
+
+    @Value("${voyageconnect.http-client.connect-timeout-ms:10000}")
+    private int connectTimeoutMs;
+
+    @Value("${voyageconnect.http-client.read-timeout-ms:10000}")
+    private long readTimeoutMs;
+
+    @Value("${voyageconnect.http-client.pool-wait-timeout-ms:2000}")
+    private long poolWaitTimeoutMs;
+
+    @Value("${voyageconnect.http-client.keep-alive-seconds:60}")
+    private long keepAliveSeconds;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider providerConnectionProvider() {
+        return ConnectionProvider.builder("providers")
+                .maxConnections(maxTotal)
+                .pendingAcquireTimeout(Duration.ofMillis(poolWaitTimeoutMs))
+                .maxIdleTime(Duration.ofSeconds(keepAliveSeconds))
+                .evictInBackground(Duration.ofSeconds(keepAliveSeconds))
+                .build();
+    }
+
+    @Bean
+    public WebClient providerWebClient(WebClient.Builder builder, ConnectionProvider providerConnectionProvider,
+                                       ProviderExchangeFilter providerExchangeFilter) {
+        HttpClient httpClient = HttpClient.create(providerConnectionProvider)
+                .compress(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(readTimeoutMs));
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(providerExchangeFilter)
+                .build();
+    }
+}
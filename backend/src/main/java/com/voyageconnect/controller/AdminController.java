@@ -4,6 +4,8 @@ import com.voyageconnect.model.Destination;
 import com.voyageconnect.model.Flight;
 import com.voyageconnect.service.DestinationImportService;
 import com.voyageconnect.service.FlightImportService;
+import com.voyageconnect.service.ReferenceData;
+import com.voyageconnect.service.ReferenceDataRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,6 +20,7 @@ public class AdminController {
 
     private final DestinationImportService destinationImportService;
     private final FlightImportService flightImportService;
+    private final ReferenceDataRegistry referenceDataRegistry;
 
     @PostMapping("/import-destinations")
     public ResponseEntity<?> importDestinations() {
@@ -49,6 +52,24 @@ public class AdminController {
         }
     }
 
+    /**
+     * Re-read the reference data file (cities, IATA codes, provider IDs) without a restart
+     */
+    @PostMapping("/reference-data/reload")
+    public ResponseEntity<?> reloadReferenceData() {
+        try {
+            ReferenceData data = referenceDataRegistry.reload();
+            return ResponseEntity.ok(Map.of(
+                    "message", "Reference data reloaded successfully",
+                    "version", data.version(),
+                    "cities", data.cities().size()
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Failed to reload reference data: " + e.getMessage()));
+        }
+    }
+
     @DeleteMapping("/clear-flights")
     public ResponseEntity<?> clearFlights() {
         try {
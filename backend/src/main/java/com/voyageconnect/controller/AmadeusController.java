@@ -36,15 +36,16 @@ public class AmadeusController {
 
     /**
      * Search flights
-     * GET /api/amadeus/flights?origin=CDG&destination=LAX&departureDate=2026-02-15
+     * GET /api/amadeus/flights?origin=CDG&destination=LAX&departureDate=2026-02-15&adults=1
      */
     @GetMapping("/flights")
     public ResponseEntity<List<FlightDTO>> searchFlights(
             @RequestParam String origin,
             @RequestParam String destination,
-            @RequestParam String departureDate) {
+            @RequestParam String departureDate,
+            @RequestParam(defaultValue = "1") int adults) {
         log.info("Searching flights: {} -> {} on {}", origin, destination, departureDate);
-        List<FlightDTO> flights = amadeusClientService.searchFlights(origin, destination, departureDate);
+        List<FlightDTO> flights = amadeusClientService.searchFlights(origin, destination, departureDate, adults);
         return ResponseEntity.ok(flights);
     }
 
@@ -1,5 +1,6 @@
 package com.voyageconnect.controller;
 
+import com.voyageconnect.client.RequestPriority;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
@@ -62,8 +63,9 @@ public class ApiHealthController {
             log.info("Key: {}...", rapidApiKey.substring(0, 15));
             
             HttpEntity<String> entity = new HttpEntity<>(headers);
-            ResponseEntity<String> response = restTemplate.exchange(
-                url, HttpMethod.GET, entity, String.class);
+            // Lowest rate-limiter lane: a health probe never takes quota from user searches
+            ResponseEntity<String> response = RequestPriority.callAs(RequestPriority.PROBE,
+                () -> restTemplate.exchange(url, HttpMethod.GET, entity, String.class));
             
             result.put("status", "SUCCESS");
             result.put("httpStatus", response.getStatusCode().value());
@@ -1,16 +1,23 @@
 package com.voyageconnect.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.voyageconnect.cache.HttpCaching;
 import com.voyageconnect.dto.DestinationCreateDTO;
 import com.voyageconnect.dto.DestinationDTO;
 import com.voyageconnect.model.Destination;
 import com.voyageconnect.repository.DestinationRepository;
 import com.voyageconnect.service.AmadeusClientService;
+import com.voyageconnect.service.PopularDestinationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -21,37 +28,57 @@ public class DestinationController {
 
     private final DestinationRepository destinationRepository;
     private final AmadeusClientService amadeusClientService;
+    private final PopularDestinationService popularDestinationService;
+    private final ObjectMapper objectMapper;
 
-    public DestinationController(DestinationRepository destinationRepository, AmadeusClientService amadeusClientService) {
+    @Value("${voyageconnect.http-cache.destinations.max-age-seconds:300}")
+    private long popularMaxAgeSeconds;
+
+    @Value("${voyageconnect.http-cache.destinations.stale-while-revalidate-seconds:600}")
+    private long popularStaleWhileRevalidateSeconds;
+
+    @Value("${voyageconnect.http-cache.destination-search.max-age-seconds:300}")
+    private long searchMaxAgeSeconds;
+
+    @Value("${voyageconnect.http-cache.destination-search.stale-while-revalidate-seconds:3600}")
+    private long searchStaleWhileRevalidateSeconds;
+
+    public DestinationController(DestinationRepository destinationRepository, AmadeusClientService amadeusClientService,
+                                 PopularDestinationService popularDestinationService, ObjectMapper objectMapper) {
         this.destinationRepository = destinationRepository;
         this.amadeusClientService = amadeusClientService;
+        this.popularDestinationService = popularDestinationService;
+        this.objectMapper = objectMapper;
     }
 
-    @GetMapping
-    public List<Map<String, Object>> list(@RequestParam(required = false) String keyword) {
+    /**
+     * Destination listing / search with HTTP validators
+     * The popular snapshot carries a precomputed ETag, so a matching If-None-Match costs neither
+     * serialization nor payload transfer
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> list(
+            @RequestParam(required = false) String keyword,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch)
+            throws JsonProcessingException {
         // Return only Amadeus API destinations
         if (keyword == null || keyword.isEmpty()) {
-            // Search for popular cities including Moroccan destinations if no keyword provided
-            List<Map<String, Object>> allDestinations = new ArrayList<>();
-            String[] popularCities = {
-                "Paris", "London", "New York", "Tokyo", "Dubai", "Barcelona", "Rome", "Amsterdam", 
-                // Moroccan cities - naturally integrated
-                "Casablanca", "Marrakech", "Rabat", "Fes", "Tangier", "Agadir", 
-                "Madrid", "Berlin", "Singapore"
-            };
-            for (String city : popularCities) {
-                List<Map<String, Object>> cityDests = amadeusClientService.searchDestinations(city);
-                if (!cityDests.isEmpty()) {
-                    allDestinations.addAll(cityDests);
-                }
-                if (allDestinations.size() >= 50) break; // Limit results
-            }
-            return allDestinations;
+            // Popular cities including Moroccan destinations, served from the pre-built JSON snapshot
+            PopularDestinationService.Snapshot snapshot = popularDestinationService.getSnapshot();
+            CacheControl cacheControl = snapshot.isEmpty()
+                    ? CacheControl.noStore()
+                    : HttpCaching.cacheControl(popularMaxAgeSeconds, popularStaleWhileRevalidateSeconds);
+            return HttpCaching.conditionalJson(snapshot.json(), snapshot.etag(), ifNoneMatch, cacheControl);
         }
         
-        // For typed searches, query Amadeus API directly
-        // This naturally supports Moroccan cities like "Casa", "Marrakech", etc.
-        return amadeusClientService.searchDestinations(keyword);
+        // Typed searches: offline destination index first ("Casa", "Fès", "marakech"), Amadeus on a miss
+        List<Map<String, Object>> results = amadeusClientService.searchDestinations(keyword);
+        byte[] json = objectMapper.writeValueAsBytes(results);
+        // Empty results may come from a provider failure: never let browsers or the CDN keep them
+        CacheControl cacheControl = results.isEmpty()
+                ? CacheControl.noStore()
+                : HttpCaching.cacheControl(searchMaxAgeSeconds, searchStaleWhileRevalidateSeconds);
+        return HttpCaching.conditionalJson(json, HttpCaching.etag(json), ifNoneMatch, cacheControl);
     }
 
     @GetMapping("/{id}")
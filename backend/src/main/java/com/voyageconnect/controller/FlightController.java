@@ -1,17 +1,30 @@
 package com.voyageconnect.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.voyageconnect.cache.FlightSearchKey;
+import com.voyageconnect.cache.HttpCaching;
+import com.voyageconnect.dto.FlexibleFlightSearchDTO;
 import com.voyageconnect.dto.FlightCreateDTO;
 import com.voyageconnect.dto.FlightDTO;
+import com.voyageconnect.dto.ItinerarySearchDTO;
 import com.voyageconnect.model.Destination;
 import com.voyageconnect.model.Flight;
 import com.voyageconnect.repository.DestinationRepository;
 import com.voyageconnect.repository.FlightRepository;
 import com.voyageconnect.service.AmadeusClientService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -23,27 +36,154 @@ public class FlightController {
     private final FlightRepository flightRepository;
     private final DestinationRepository destinationRepository;
     private final AmadeusClientService amadeusClientService;
+    private final ObjectMapper objectMapper;
 
-    public FlightController(FlightRepository flightRepository, DestinationRepository destinationRepository, AmadeusClientService amadeusClientService) {
+    @Value("${voyageconnect.http-cache.flights.max-age-seconds:60}")
+    private long maxAgeSeconds;
+
+    @Value("${voyageconnect.http-cache.flights.stale-while-revalidate-seconds:120}")
+    private long staleWhileRevalidateSeconds;
+
+    public FlightController(FlightRepository flightRepository, DestinationRepository destinationRepository,
+                            AmadeusClientService amadeusClientService, ObjectMapper objectMapper) {
         this.flightRepository = flightRepository;
         this.destinationRepository = destinationRepository;
         this.amadeusClientService = amadeusClientService;
+        this.objectMapper = objectMapper;
     }
 
-    @GetMapping
-    public List<FlightDTO> list(
+    /**
+     * Flight search with HTTP validators (strong ETag over the response, If-None-Match → 304)
+     * max-age follows the freshness window of the flight offer cache
+     * With flexDays (1..max-flex-days) the dates departureDate ± flexDays are searched in one request and the
+     * response is a FlexibleFlightSearchDTO (offers of all days plus the cheapest price per day)
+     * adults outside 1..9 (the Amadeus limit) is a 400
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> list(
             @RequestParam(required = false) String origin,
             @RequestParam(required = false) String destination,
             @RequestParam(required = false) String departureDate,
-            @RequestParam(required = false) Long destinationId) {
-        
+            @RequestParam(required = false) Long destinationId,
+            @RequestParam(defaultValue = "1") int adults,
+            @RequestParam(required = false) Integer flexDays,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch)
+            throws JsonProcessingException {
+        if (!FlightSearchKey.isValidAdults(adults)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        if (flexDays != null && flexDays > 0 && origin != null && destination != null && departureDate != null) {
+            return flexibleSearch(origin, destination, departureDate, flexDays, adults, ifNoneMatch);
+        }
+
+        List<FlightDTO> flights;
         // If search parameters provided, fetch from Amadeus API
         if (origin != null && destination != null && departureDate != null) {
-            return amadeusClientService.searchFlights(origin, destination, departureDate);
+            flights = amadeusClientService.searchFlights(origin, destination, departureDate, adults);
+        } else {
+            // Default: return mock flights for demo
+            flights = amadeusClientService.searchFlights("ORD", "LAX", "2026-01-25");
         }
-        
-        // Default: return mock flights for demo
-        return amadeusClientService.searchFlights("ORD", "LAX", "2026-01-25");
+
+        byte[] json = objectMapper.writeValueAsBytes(flights);
+        // Empty results may come from a provider failure: never let browsers or the CDN keep them
+        CacheControl cacheControl = flights.isEmpty()
+                ? CacheControl.noStore()
+                : HttpCaching.cacheControl(maxAgeSeconds, staleWhileRevalidateSeconds);
+        return HttpCaching.conditionalJson(json, HttpCaching.etag(json), ifNoneMatch, cacheControl);
+    }
+
+    private ResponseEntity<byte[]> flexibleSearch(String origin, String destination, String departureDate,
+                                                  int flexDays, int adults, String ifNoneMatch)
+            throws JsonProcessingException {
+        FlexibleFlightSearchDTO result;
+        try {
+            result = amadeusClientService.searchFlightsFlexible(origin, destination, departureDate, flexDays, adults);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        byte[] json = objectMapper.writeValueAsBytes(result);
+        // Days that failed or missed the latency budget are filled in by the next request: do not cache partial results
+        CacheControl cacheControl = result.getFlights().isEmpty() || !result.isComplete()
+                ? CacheControl.noStore()
+                : HttpCaching.cacheControl(maxAgeSeconds, staleWhileRevalidateSeconds);
+        return HttpCaching.conditionalJson(json, HttpCaching.etag(json), ifNoneMatch, cacheControl);
+    }
+
+    /**
+     * Round trip: outbound and return legs searched concurrently, cheapest combined itineraries first
+     * GET /api/flights/round-trip?origin=CMN&destination=CDG&departureDate=2026-03-01&returnDate=2026-03-08
+     */
+    @GetMapping(value = "/round-trip", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> roundTrip(
+            @RequestParam String origin,
+            @RequestParam String destination,
+            @RequestParam String departureDate,
+            @RequestParam String returnDate,
+            @RequestParam(defaultValue = "1") int adults,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch)
+            throws JsonProcessingException {
+        if (!FlightSearchKey.isValidAdults(adults)) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            if (LocalDate.parse(returnDate).isBefore(LocalDate.parse(departureDate))) {
+                return ResponseEntity.badRequest().build();
+            }
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return itineraries(List.of(
+                FlightSearchKey.of(origin, destination, departureDate, adults),
+                FlightSearchKey.of(destination, origin, returnDate, adults)), ifNoneMatch);
+    }
+
+    /**
+     * Multi-city: legs as ORIGIN-DESTINATION-DATE, comma-separated, searched concurrently
+     * GET /api/flights/multi-city?legs=CMN-CDG-2026-03-01,CDG-FCO-2026-03-05,FCO-CMN-2026-03-10
+     */
+    @GetMapping(value = "/multi-city", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> multiCity(
+            @RequestParam List<String> legs,
+            @RequestParam(defaultValue = "1") int adults,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch)
+            throws JsonProcessingException {
+        if (!FlightSearchKey.isValidAdults(adults)) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<FlightSearchKey> keys = new ArrayList<>();
+        for (String leg : legs) {
+            String[] parts = leg.trim().split("-", 3);
+            if (parts.length != 3) {
+                return ResponseEntity.badRequest().build();
+            }
+            try {
+                LocalDate.parse(parts[2]);
+            } catch (DateTimeParseException e) {
+                return ResponseEntity.badRequest().build();
+            }
+            keys.add(FlightSearchKey.of(parts[0], parts[1], parts[2], adults));
+        }
+        return itineraries(keys, ifNoneMatch);
+    }
+
+    private ResponseEntity<byte[]> itineraries(List<FlightSearchKey> legs, String ifNoneMatch)
+            throws JsonProcessingException {
+        ItinerarySearchDTO result;
+        try {
+            result = amadeusClientService.searchItineraries(legs);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        byte[] json = objectMapper.writeValueAsBytes(result);
+        // Legs that failed or missed the latency budget make the result partial: not cached
+        CacheControl cacheControl = result.getItineraries().isEmpty() || !result.isComplete()
+                ? CacheControl.noStore()
+                : HttpCaching.cacheControl(maxAgeSeconds, staleWhileRevalidateSeconds);
+        return HttpCaching.conditionalJson(json, HttpCaching.etag(json), ifNoneMatch, cacheControl);
     }
 
     @GetMapping("/{id}")
@@ -1,5 +1,12 @@
 package com.voyageconnect.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.voyageconnect.cache.HotelGeoIndex;
+import com.voyageconnect.cache.HttpCaching;
 import com.voyageconnect.dto.HotelCreateDTO;
 import com.voyageconnect.dto.HotelDTO;
 import com.voyageconnect.model.Destination;
@@ -8,15 +15,33 @@ import com.voyageconnect.repository.DestinationRepository;
 import com.voyageconnect.repository.HotelRepository;
 import com.voyageconnect.service.AmadeusHotelService;
 import com.voyageconnect.service.BookingApiService;
+import com.voyageconnect.service.HotelAggregationService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 @RestController
@@ -29,19 +54,57 @@ public class HotelController {
     private final DestinationRepository destinationRepository;
     private final BookingApiService bookingApiService;
     private final AmadeusHotelService amadeusHotelService;
+    private final HotelAggregationService hotelAggregationService;
+    private final HotelGeoIndex hotelGeoIndex;
+    private final ObjectMapper objectMapper;
+
+    private static final String EMPTY_RESULT = "{\"result\":[],\"count\":0}";
+    private static final String UPSTREAM_RELEASE = HotelController.class.getName() + ".upstream";
+
+    @Value("${voyageconnect.hotels.pass-through:false}")
+    private boolean passThrough;
+
+    @Value("${voyageconnect.hotels.pass-through-buffer-bytes:8192}")
+    private int passThroughBufferBytes;
+
+    @Value("${voyageconnect.hotels.geo-index.max-radius-meters:50000}")
+    private double maxRadiusMeters;
+
+    @Value("${voyageconnect.hotels.geo-index.max-results:200}")
+    private int maxNearbyResults;
+
+    @Value("${voyageconnect.http-cache.hotels.max-age-seconds:300}")
+    private long maxAgeSeconds;
+
+    @Value("${voyageconnect.http-cache.hotels.stale-while-revalidate-seconds:600}")
+    private long staleWhileRevalidateSeconds;
 
     public HotelController(HotelRepository hotelRepository, 
                           DestinationRepository destinationRepository,
                           BookingApiService bookingApiService,
-                          AmadeusHotelService amadeusHotelService) {
+                          AmadeusHotelService amadeusHotelService,
+                          HotelAggregationService hotelAggregationService,
+                          HotelGeoIndex hotelGeoIndex,
+                          ObjectMapper objectMapper) {
         this.hotelRepository = hotelRepository;
         this.destinationRepository = destinationRepository;
         this.bookingApiService = bookingApiService;
         this.amadeusHotelService = amadeusHotelService;
+        this.hotelAggregationService = hotelAggregationService;
+        this.hotelGeoIndex = hotelGeoIndex;
+        this.objectMapper = objectMapper;
     }
 
+    /**
+     * Hotel search by city
+     * Cities covered by several providers (Moroccan cities: Amadeus and Booking.com) are searched on all
+     * of them concurrently and merged (HotelAggregationService); partial results are not cached.
+     * Bodies carry a strong ETag (If-None-Match → 304); empty and partial results are sent with no-store
+     */
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<String> list(@RequestParam(required = false) String city) {
+    public ResponseEntity<byte[]> list(
+            @RequestParam(required = false) String city,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
             // Default to Paris if no city specified
             String cityName = city != null ? city : "Paris";
@@ -50,27 +113,261 @@ public class HotelController {
             
             String hotelsJson;
             
-            // Route based on city: Morocco → Amadeus, Others → Booking.com
-            if (amadeusHotelService.isMoroccanCity(cityName)) {
+            // Route based on city: Morocco → Amadeus + Booking.com (or Amadeus only), Others → Booking.com
+            if (hotelAggregationService.isAggregated(cityName)) {
+                log.info("→ Aggregating AMADEUS and BOOKING.COM results for city: {}", cityName);
+                HotelAggregationService.AggregatedHotels hotels = hotelAggregationService.searchHotels(cityName);
+                if (hotels.count() == 0) {
+                    return noStore(EMPTY_RESULT);
+                }
+                return hotels.complete()
+                    ? conditionalJson(HttpCaching.JsonBody.of(hotels.json()), ifNoneMatch)
+                    : noStore(hotels.json());
+            } else if (amadeusHotelService.isMoroccanCity(cityName)) {
                 log.info("→ Routing to AMADEUS for Moroccan city: {}", cityName);
-                hotelsJson = amadeusHotelService.searchHotels(cityName);
+                // Cached with its ETag: a revalidation is answered without re-encoding or re-hashing the body
+                return conditionalJson(amadeusHotelService.searchHotelsBody(cityName), ifNoneMatch);
             } else {
                 log.info("→ Routing to BOOKING.COM for city: {}", cityName);
-                hotelsJson = bookingApiService.getHotelsByCity(cityName);
+                // A failed search ends in the catch below: empty and not cached
+                hotelsJson = bookingApiService.searchHotelsByCity(cityName);
             }
             
-            return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(hotelsJson);
+            return conditionalJson(HttpCaching.JsonBody.of(hotelsJson), ifNoneMatch);
             
         } catch (Exception e) {
             log.error("✗ Error in hotel controller: {}", e.getMessage());
-            return ResponseEntity.ok()
+            return noStore(EMPTY_RESULT);
+        }
+    }
+
+    /**
+     * Booking.com hotel search streamed through unchanged (opt-in with pass-through: streamed responses skip
+     * the request coalescer and the provider caches). The upstream body (still gzip-compressed when the
+     * browser accepts it) is copied to the servlet output stream through a fixed-size buffer, never held as
+     * a String or re-encoded. Streamed bodies only get Cache-Control, since their bytes are not known
+     * before they are sent.
+     * Cities served by other providers, or every city when pass-through is disabled, are redirected to
+     * the buffered search
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> stream(
+            @RequestParam(required = false) String city,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletRequest request) {
+        String cityName = city != null ? city : "Paris";
+        if (!passThrough || amadeusHotelService.isMoroccanCity(cityName)) {
+            return ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT)
+                .location(UriComponentsBuilder.fromPath("/api/hotels").queryParam("city", cityName)
+                    .encode().build().toUri())
+                .build();
+        }
+        try {
+            log.info("→ Streaming BOOKING.COM results for city: {}", cityName);
+            return streamBookingHotels(cityName, acceptsGzip(acceptEncoding), request);
+        } catch (Exception e) {
+            log.error("✗ Error streaming hotels: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).cacheControl(CacheControl.noStore()).build();
+        }
+    }
+
+    /**
+     * Hotels around a point (lat, lng, radius in meters; nearest first) or inside a map viewport
+     * (bbox=west,south,east,north), answered from the spatial index of previous search results instead of a
+     * provider map search per viewport.
+     * With city, an area without indexed hotels triggers one search of that city (then answered from the
+     * index until its entries expire).
+     * Same Booking.com-shaped JSON as the city search ({"result": [...], "count": n}), not cached: the
+     * index grows with every search
+     */
+    @GetMapping(value = "/nearby", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> nearby(
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(defaultValue = "2000") double radius,
+            @RequestParam(required = false) String bbox,
+            @RequestParam(required = false) String city,
+            @RequestParam(defaultValue = "50") int limit) throws JsonProcessingException {
+        double[] bounds = bbox != null ? parseBbox(bbox) : null;
+        if (bbox != null ? bounds == null : lat == null || lng == null || Math.abs(lat) > 90 || Math.abs(lng) > 180) {
+            return ResponseEntity.badRequest().build();
+        }
+        int size = Math.max(1, Math.min(limit, maxNearbyResults));
+        double radiusMeters = Math.max(1, Math.min(radius, maxRadiusMeters));
+
+        List<HotelGeoIndex.Hotel> hotels = findNearby(lat, lng, radiusMeters, bounds, size);
+        if (hotels.isEmpty() && city != null && !city.isBlank() && !hotelGeoIndex.isCityIndexed(city)) {
+            log.info("→ No indexed hotels in the area, searching {} once", city);
+            List<JsonNode> properties = hotelAggregationService.searchProperties(city.trim()).properties();
+            // A failed or empty search is retried by the next request instead of blocking the city for the TTL
+            if (properties.stream().anyMatch(property -> HotelGeoIndex.coordinates(property) != null)) {
+                hotelGeoIndex.markCityIndexed(city);
+            }
+            hotels = findNearby(lat, lng, radiusMeters, bounds, size);
+        }
+
+        ObjectNode response = objectMapper.createObjectNode();
+        ArrayNode result = response.putArray("result");
+        hotels.forEach(hotel -> result.add(hotel.property()));
+        response.put("count", hotels.size());
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .cacheControl(CacheControl.noStore())
+            .body(objectMapper.writeValueAsBytes(response));
+    }
+
+    private List<HotelGeoIndex.Hotel> findNearby(Double lat, Double lng, double radiusMeters, double[] bounds, int size) {
+        return bounds != null
+            ? hotelGeoIndex.withinBounds(bounds[1], bounds[0], bounds[3], bounds[2], size)
+            : hotelGeoIndex.nearby(lat, lng, radiusMeters, size);
+    }
+
+    /**
+     * "west,south,east,north" in degrees; null when malformed or out of range
+     */
+    static double[] parseBbox(String bbox) {
+        String[] parts = bbox.split(",");
+        if (parts.length != 4) {
+            return null;
+        }
+        try {
+            double[] bounds = new double[4];
+            for (int i = 0; i < 4; i++) {
+                bounds[i] = Double.parseDouble(parts[i].trim());
+            }
+            boolean valid = Math.abs(bounds[0]) <= 180 && Math.abs(bounds[2]) <= 180
+                && Math.abs(bounds[1]) <= 90 && Math.abs(bounds[3]) <= 90 && bounds[1] <= bounds[3];
+            return valid ? bounds : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The upstream connection is opened here (its status and encoding decide the response headers) and
+     * released when the body has been copied, or when async processing ends without copying it
+     * (client abort, timeout, rejected task)
+     */
+    private ResponseEntity<StreamingResponseBody> streamBookingHotels(String cityName, boolean acceptGzip,
+                                                                      HttpServletRequest request) throws IOException {
+        ClientHttpResponse upstream = bookingApiService.openHotelsByCity(cityName, acceptGzip);
+        if (upstream == null) {
+            return emptyStream();
+        }
+        Runnable release = closeOnce(upstream);
+        try {
+            if (!upstream.getStatusCode().is2xxSuccessful()) {
+                log.error("✗ Booking API returned {} for {}", upstream.getStatusCode(), cityName);
+                release.run();
+                return emptyStream();
+            }
+            WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(UPSTREAM_RELEASE,
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                        release.run();
+                    }
+                });
+
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
                 .contentType(MediaType.APPLICATION_JSON)
-                .body("{\"result\":[],\"count\":0}");
+                .cacheControl(HttpCaching.cacheControl(maxAgeSeconds, staleWhileRevalidateSeconds));
+            String contentEncoding = upstream.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+            if (contentEncoding != null) {
+                response.header(HttpHeaders.CONTENT_ENCODING, contentEncoding)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            long contentLength = upstream.getHeaders().getContentLength();
+            if (contentLength >= 0) {
+                response.contentLength(contentLength);
+            }
+
+            return response.body(out -> {
+                try (InputStream in = upstream.getBody()) {
+                    byte[] buffer = new byte[passThroughBufferBytes];
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        out.write(buffer, 0, read);
+                    }
+                } finally {
+                    release.run();
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            release.run();
+            throw e;
         }
     }
 
+    private static Runnable closeOnce(ClientHttpResponse upstream) {
+        AtomicBoolean closed = new AtomicBoolean();
+        return () -> {
+            if (closed.compareAndSet(false, true)) {
+                upstream.close();
+            }
+        };
+    }
+
+    /**
+     * Whether an Accept-Encoding header allows gzip: a gzip (or x-gzip) coding, else "*", with q > 0
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        q = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = gzip == null ? q : Math.max(gzip, q);
+            } else if (coding.equals("*")) {
+                any = q;
+            }
+        }
+        Double effective = gzip != null ? gzip : any;
+        return effective != null && effective > 0;
+    }
+
+    private ResponseEntity<byte[]> conditionalJson(HttpCaching.JsonBody body, String ifNoneMatch) {
+        return HttpCaching.conditionalJson(body.bytes(), body.etag(), ifNoneMatch,
+            HttpCaching.cacheControl(maxAgeSeconds, staleWhileRevalidateSeconds));
+    }
+
+    /**
+     * Empty or partial result (unknown city, provider failure): never cached by browsers or the CDN
+     */
+    private static ResponseEntity<byte[]> noStore(String json) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .cacheControl(CacheControl.noStore())
+            .body(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Unknown city or failed upstream call on the streaming endpoint: empty result, not cached
+     */
+    private static ResponseEntity<StreamingResponseBody> emptyStream() {
+        byte[] bytes = EMPTY_RESULT.getBytes(StandardCharsets.UTF_8);
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .cacheControl(CacheControl.noStore())
+            .contentLength(bytes.length)
+            .body(out -> out.write(bytes));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<HotelDTO> get(@PathVariable Long id) {
         return hotelRepository.findById(id).map(h -> ResponseEntity.ok(toDto(h))).orElseGet(() -> ResponseEntity.notFound().build());
@@ -0,0 +1,149 @@
+package com.voyageconnect.controller;
+
+import com.voyageconnect.cache.FlightSearchKey;
+import com.voyageconnect.cache.SearchSession;
+import com.voyageconnect.cache.SearchSessionStore;
+import com.voyageconnect.dto.SearchPageDTO;
+import com.voyageconnect.service.SearchSessionService;
+import lombok.Data;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Server-side search sessions
+ * GET /api/search/flights and /api/search/hotels run the provider search once, keep the results under a
+ * searchId and answer the first page; GET /api/search/sessions/{searchId} re-sorts, filters and pages
+ * those results without another provider call (404 once the session expired, the client then searches again).
+ * Common parameters: sort=price|duration|departure|rating, order=asc|desc, minPrice, maxPrice, minRating,
+ * airline, page (from 0), size (1..100); an unknown sort field, a negative page or a size below 1 is a 400
+ */
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class SearchSessionController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final SearchSessionService searchSessionService;
+    private final SearchSessionStore searchSessionStore;
+
+    public SearchSessionController(SearchSessionService searchSessionService, SearchSessionStore searchSessionStore) {
+        this.searchSessionService = searchSessionService;
+        this.searchSessionStore = searchSessionStore;
+    }
+
+    @GetMapping("/flights")
+    public ResponseEntity<SearchPageDTO> flights(
+            @RequestParam String origin,
+            @RequestParam String destination,
+            @RequestParam String departureDate,
+            @RequestParam(defaultValue = "1") int adults,
+            @RequestParam(defaultValue = "0") int flexDays,
+            @ModelAttribute PageRequest request) {
+        if (!FlightSearchKey.isValidAdults(adults)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return firstPage(SearchSession.Kind.FLIGHTS, request,
+            () -> searchSessionService.searchFlights(origin, destination, departureDate, adults, flexDays));
+    }
+
+    @GetMapping("/hotels")
+    public ResponseEntity<SearchPageDTO> hotels(@RequestParam String city, @ModelAttribute PageRequest request) {
+        return firstPage(SearchSession.Kind.HOTELS, request, () -> searchSessionService.searchHotels(city));
+    }
+
+    @GetMapping("/sessions/{searchId}")
+    public ResponseEntity<SearchPageDTO> page(@PathVariable String searchId, @ModelAttribute PageRequest request) {
+        SearchSession.SortField sort = request.sortField();
+        if (sort == null || !request.isValidPage()) {
+            return ResponseEntity.badRequest().build();
+        }
+        SearchSession session = searchSessionStore.get(searchId);
+        if (session == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ok(page(session, session.getKind(), sort, request));
+    }
+
+    private ResponseEntity<SearchPageDTO> firstPage(SearchSession.Kind kind, PageRequest request,
+                                                    Supplier<SearchSession> search) {
+        SearchSession.SortField sort = request.sortField();
+        if (sort == null || !request.isValidPage()) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ok(page(search.get(), kind, sort, request));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * The page of the session; an empty page without searchId when the search found nothing
+     */
+    private static SearchPageDTO page(SearchSession session, SearchSession.Kind kind, SearchSession.SortField sort,
+                                      PageRequest request) {
+        int size = Math.min(request.getSize(), MAX_PAGE_SIZE);
+        int pageNumber = request.getPage();
+        String order = request.isDescending() ? "desc" : "asc";
+        if (session == null) {
+            return new SearchPageDTO(null, kind.name(), sort.name().toLowerCase(Locale.ROOT), order, pageNumber, size,
+                0, true, List.of());
+        }
+        SearchSession.Page page = session.page(sort, request.isDescending(), request.filter(), pageNumber, size);
+        return new SearchPageDTO(session.getId(), kind.name(), sort.name().toLowerCase(Locale.ROOT), order,
+            pageNumber, size, page.total(), session.isComplete(), page.results());
+    }
+
+    /**
+     * Pages belong to one client's session: not stored by browsers or shared caches
+     */
+    private static ResponseEntity<SearchPageDTO> ok(SearchPageDTO page) {
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(page);
+    }
+
+    /**
+     * Sort, filter and paging parameters shared by all endpoints
+     */
+    @Data
+    public static class PageRequest {
+        private String sort = "price";
+        private String order = "asc";
+        private Double minPrice;
+        private Double maxPrice;
+        private Double minRating;
+        private String airline;
+        private int page = 0;
+        private int size = 20;
+
+        /**
+         * Null for an unknown sort field
+         */
+        SearchSession.SortField sortField() {
+            try {
+                return SearchSession.SortField.parse(sort);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        boolean isValidPage() {
+            return page >= 0 && size >= 1;
+        }
+
+        boolean isDescending() {
+            return "desc".equalsIgnoreCase(order);
+        }
+
+        SearchSession.Filter filter() {
+            return new SearchSession.Filter(minPrice, maxPrice, minRating,
+                airline == null || airline.isBlank() ? null : airline.trim());
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.voyageconnect.controller;
+
+import com.voyageconnect.service.AmadeusClientService;
+import com.voyageconnect.service.AmadeusHotelService;
+import com.voyageconnect.service.BookingApiService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Combined flight + hotel search as Server-Sent Events
+ * Each provider's results are pushed as soon as it answers (non-blocking WebClient calls), so the
+ * client renders the first results without waiting for the slowest provider.
+ * Events: "flights" (FlightDTO list), "hotels" (Booking.com-shaped JSON), "error" ({provider, message}),
+ * then a final "done".
+ */
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@Slf4j
+public class SearchStreamController {
+
+    private final AmadeusClientService amadeusClientService;
+    private final AmadeusHotelService amadeusHotelService;
+    private final BookingApiService bookingApiService;
+
+    @Value("${voyageconnect.search-stream.provider-timeout-ms:15000}")
+    private long providerTimeoutMs;
+
+    public SearchStreamController(AmadeusClientService amadeusClientService,
+                                  AmadeusHotelService amadeusHotelService,
+                                  BookingApiService bookingApiService) {
+        this.amadeusClientService = amadeusClientService;
+        this.amadeusHotelService = amadeusHotelService;
+        this.bookingApiService = bookingApiService;
+    }
+
+    /**
+     * Flights are searched when origin, destination and departureDate are given;
+     * hotels when city is given (defaults to the flight destination)
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> stream(
+            @RequestParam(required = false) String origin,
+            @RequestParam(required = false) String destination,
+            @RequestParam(required = false) String departureDate,
+            @RequestParam(defaultValue = "1") int adults,
+            @RequestParam(required = false) String city) {
+
+        List<Flux<ServerSentEvent<Object>>> sources = new ArrayList<>();
+
+        if (origin != null && destination != null && departureDate != null) {
+            sources.add(event("flights", "amadeus",
+                amadeusClientService.searchFlightsReactive(origin, destination, departureDate, adults)));
+        }
+
+        String hotelCity = city != null ? city : destination;
+        if (hotelCity != null) {
+            // Same routing as HotelController: Morocco → Amadeus, others → Booking.com
+            boolean moroccan = amadeusHotelService.isMoroccanCity(hotelCity);
+            Mono<String> hotels = moroccan
+                ? amadeusHotelService.searchHotelsReactive(hotelCity)
+                : bookingApiService.getHotelsByCityReactive(hotelCity);
+            // JSON whitespace outside strings is insignificant and raw line breaks cannot occur inside them,
+            // so flattening keeps the payload on a single SSE data line
+            sources.add(event("hotels", moroccan ? "amadeus" : "booking",
+                hotels.map(json -> json.replace('\r', ' ').replace('\n', ' '))));
+        }
+
+        ServerSentEvent<Object> done = ServerSentEvent.builder()
+            .event("done")
+            .data((Object) Map.of("sources", sources.size()))
+            .build();
+        return Flux.merge(sources).concatWith(Mono.just(done));
+    }
+
+    private Flux<ServerSentEvent<Object>> event(String name, String provider, Mono<?> results) {
+        return results
+            .timeout(Duration.ofMillis(providerTimeoutMs))
+            .<ServerSentEvent<Object>>map(data -> ServerSentEvent.builder().event(name).data(data).build())
+            .onErrorResume(e -> {
+                log.warn("✗ {} results from {} not streamed: {}", name, provider, e.getMessage());
+                return Mono.just(ServerSentEvent.builder()
+                    .event("error")
+                    .data((Object) Map.of("provider", provider, "results", name,
+                        "message", String.valueOf(e.getMessage())))
+                    .build());
+            })
+            .flux();
+    }
+}
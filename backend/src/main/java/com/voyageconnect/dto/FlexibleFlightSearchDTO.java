@@ -0,0 +1,39 @@
+package com.voyageconnect.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Flexible-date flight search: offers for every day of departureDate ± flexDays, with the cheapest
+ * price per day
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlexibleFlightSearchDTO {
+    private String departureDate;
+    private int flexDays;
+    private List<DaySummary> days;
+    private List<FlightDTO> flights;
+
+    /**
+     * One departure day; complete is false when that day's search failed or missed the latency budget
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DaySummary {
+        private String date;
+        private BigDecimal cheapestPrice;
+        private int offerCount;
+        private boolean complete;
+    }
+
+    public boolean isComplete() {
+        return days.stream().allMatch(DaySummary::isComplete);
+    }
+}
@@ -1,5 +1,6 @@
 package com.voyageconnect.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -7,6 +8,7 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -21,6 +23,12 @@ public class FlightDTO {
     private String airline;
     private String flightNumber;
     private String imageUrl;
+    // Full segment list of Amadeus offers (departure / arrival above span all of them); null for local flights
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<FlightSegmentDTO> segments;
+    // ISO-8601 total travel time of Amadeus offers, e.g. PT5H30M
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String duration;
     
     // Constructor that accepts LocalDateTime and converts to String
     public FlightDTO(Long id, LocalDateTime departure, LocalDateTime arrival, 
@@ -36,4 +44,9 @@ public class FlightDTO {
         this.flightNumber = flightNumber;
         this.imageUrl = imageUrl;
     }
+
+    public FlightDTO(Long id, String departure, String arrival, BigDecimal price, Integer availableSeats,
+                     Long destinationId, String airline, String flightNumber, String imageUrl) {
+        this(id, departure, arrival, price, availableSeats, destinationId, airline, flightNumber, imageUrl, null, null);
+    }
 }
@@ -0,0 +1,20 @@
+package com.voyageconnect.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One flown segment of a flight offer (airport codes, local times, marketing carrier and flight number)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlightSegmentDTO {
+    private String from;
+    private String to;
+    private String departure;
+    private String arrival;
+    private String carrier;
+    private String number;
+}
@@ -0,0 +1,49 @@
+package com.voyageconnect.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Round-trip / multi-city search: what each leg search returned, and the cheapest combined itineraries
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItinerarySearchDTO {
+    private List<LegSummary> legs;
+    private List<Itinerary> itineraries;
+
+    /**
+     * One leg search; complete is false when it failed or missed the latency budget
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LegSummary {
+        private String origin;
+        private String destination;
+        private String departureDate;
+        private BigDecimal cheapestPrice;
+        private int offerCount;
+        private boolean complete;
+    }
+
+    /**
+     * One offer per leg, in leg order, with the sum of their prices
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Itinerary {
+        private BigDecimal totalPrice;
+        private List<FlightDTO> flights;
+    }
+
+    public boolean isComplete() {
+        return legs.stream().allMatch(LegSummary::isComplete);
+    }
+}
@@ -0,0 +1,26 @@
+package com.voyageconnect.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a server-side search session; total counts every result matching the filters
+ * complete is false when a provider failed or missed its latency budget (the session then expires soon)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchPageDTO {
+    private String searchId;
+    private String kind;
+    private String sort;
+    private String order;
+    private int page;
+    private int size;
+    private int total;
+    private boolean complete;
+    private List<Object> results;
+}
@@ -0,0 +1,31 @@
+package com.voyageconnect.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resolved Booking.com city_id for a city name (from RapidAPI /v1/static/cities)
+ * A null cityId records that Booking.com has no city for that name (negative result)
+ */
+@Entity
+@Table(name = "booking_city_ids")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingCityId {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Normalized (upper-case, trimmed) city name
+    @Column(length = 100, unique = true, nullable = false)
+    private String cityName;
+
+    @Column(length = 50)
+    private String cityId;
+
+    private LocalDateTime resolvedAt;
+}
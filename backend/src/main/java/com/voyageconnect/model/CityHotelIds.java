@@ -0,0 +1,31 @@
+package com.voyageconnect.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Amadeus hotel IDs known for a city (reference data from /v1/reference-data/locations/hotels/by-city)
+ * Stored so hotel searches can skip the by-city lookup and go straight to hotel offers
+ */
+@Entity
+@Table(name = "city_hotel_ids")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CityHotelIds {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(length = 10, unique = true, nullable = false)
+    private String cityCode;
+
+    // Comma-separated Amadeus hotel IDs
+    @Column(columnDefinition = "TEXT")
+    private String hotelIds;
+
+    private LocalDateTime refreshedAt;
+}
@@ -0,0 +1,12 @@
+package com.voyageconnect.repository;
+
+import com.voyageconnect.model.BookingCityId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface BookingCityIdRepository extends JpaRepository<BookingCityId, Long> {
+    Optional<BookingCityId> findByCityName(String cityName);
+}
@@ -0,0 +1,12 @@
+package com.voyageconnect.repository;
+
+import com.voyageconnect.model.CityHotelIds;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CityHotelIdsRepository extends JpaRepository<CityHotelIds, Long> {
+    Optional<CityHotelIds> findByCityCode(String cityCode);
+}
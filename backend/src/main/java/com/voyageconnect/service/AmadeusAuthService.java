@@ -3,13 +3,24 @@ package com.voyageconnect.service;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
-import java.util.Base64;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Amadeus OAuth2 token manager
+ * - The current token is an immutable holder swapped atomically: request threads read it without locking
+ * - A scheduled task refreshes the token ahead of expiry, so request threads normally never wait
+ * - Only when no valid token exists (startup, failed refresh, invalidation) does a request thread
+ *   fetch one itself; concurrent callers then wait for that single fetch
+ */
 @Service
 @Slf4j
 public class AmadeusAuthService {
@@ -23,11 +34,18 @@ public class AmadeusAuthService {
     @Value("${amadeus.api.secret}")
     private String apiSecret;
 
+    // Background refresh starts this long before the token expires
+    @Value("${amadeus.token.refresh-ahead-seconds:300}")
+    private long refreshAheadSeconds;
+
     private static final String AMADEUS_AUTH_URL = "https://test.api.amadeus.com/v1/security/oauth2/token";
     private static final String GRANT_TYPE = "client_credentials";
+    // A token this close to expiry is not handed out (covers clock skew and request transit time)
+    private static final long EXPIRY_SAFETY_MARGIN_MS = 5000;
 
-    private String cachedAccessToken;
-    private long tokenExpiryTime;
+    private final AtomicReference<AccessToken> currentToken = new AtomicReference<>();
+    // A lock rather than a monitor: the token request is network I/O and must not pin a virtual thread's carrier
+    private final ReentrantLock fetchLock = new ReentrantLock();
 
     public AmadeusAuthService(RestTemplate restTemplate, ObjectMapper objectMapper) {
         this.restTemplate = restTemplate;
@@ -35,50 +53,86 @@ public class AmadeusAuthService {
     }
 
     /**
-     * Get valid access token, using cache if not expired
-     * If cache is about to expire (within 30 seconds), refresh proactively
+     * Get valid access token
+     * Lock-free when a valid token is held; blocks only if none exists
      */
     public String getAccessToken() throws Exception {
-        // If token is not cached or expired, generate new one
-        if (cachedAccessToken == null || System.currentTimeMillis() >= tokenExpiryTime) {
-            log.debug("Token not cached or expired, requesting new token");
-            return generateNewToken();
+        AccessToken token = currentToken.get();
+        if (token != null && token.isValid(System.currentTimeMillis())) {
+            log.debug("Using cached Amadeus access token, expires in {} seconds", token.secondsLeft());
+            return token.value();
         }
-        
-        // If token expires soon (within 30 seconds), refresh it
-        long timeUntilExpiry = tokenExpiryTime - System.currentTimeMillis();
-        if (timeUntilExpiry < 30000) {
-            log.debug("Token expires in {} ms, refreshing proactively", timeUntilExpiry);
-            return generateNewToken();
+
+        fetchLock.lock();
+        try {
+            // Another thread may have fetched a token while we waited for the lock
+            token = currentToken.get();
+            if (token != null && token.isValid(System.currentTimeMillis())) {
+                return token.value();
+            }
+            log.debug("No valid Amadeus token, requesting new token on request thread");
+            return fetchToken().value();
+        } finally {
+            fetchLock.unlock();
         }
-        
-        log.debug("Using cached Amadeus access token, expires in {} seconds", timeUntilExpiry / 1000);
-        return cachedAccessToken;
     }
 
     /**
-     * Generate new OAuth2 token from Amadeus
-     * Automatically retries token generation if current cached token fails authentication
+     * Reactive access to the token for the WebClient calls
+     * Completes immediately with a valid token; otherwise the token request runs on the bounded elastic
+     * scheduler so no event-loop thread blocks
      */
-    private synchronized String generateNewToken() throws Exception {
-        // Double-check after acquiring lock - another thread may have just refreshed
-        long timeUntilExpiry = tokenExpiryTime - System.currentTimeMillis();
-        if (cachedAccessToken != null && timeUntilExpiry > 30000) {
-            log.debug("Another thread already refreshed token");
-            return cachedAccessToken;
+    public Mono<String> accessToken() {
+        AccessToken token = currentToken.get();
+        if (token != null && token.isValid(System.currentTimeMillis())) {
+            return Mono.just(token.value());
         }
+        return Mono.fromCallable(this::getAccessToken).subscribeOn(Schedulers.boundedElastic());
+    }
 
+    /**
+     * Background refresh: renews the token once it is within refresh-ahead of expiry
+     * Failures are logged and retried on the next run; the current token stays in use until it expires
+     */
+    @Scheduled(initialDelayString = "${amadeus.token.initial-delay-ms:0}",
+               fixedDelayString = "${amadeus.token.check-interval-ms:30000}")
+    public void refreshAheadOfExpiry() {
+        AccessToken token = currentToken.get();
+        long now = System.currentTimeMillis();
+        if (token != null && token.expiresAt() - now > refreshAheadSeconds * 1000) {
+            return;
+        }
+
+        fetchLock.lock();
+        try {
+            token = currentToken.get();
+            if (token != null && token.expiresAt() - System.currentTimeMillis() > refreshAheadSeconds * 1000) {
+                return;
+            }
+            try {
+                fetchToken();
+            } catch (Exception e) {
+                log.warn("Background Amadeus token refresh failed, will retry: {}", e.getMessage());
+            }
+        } finally {
+            fetchLock.unlock();
+        }
+    }
+
+    /**
+     * Generate new OAuth2 token from Amadeus and publish it
+     * Must be called while holding fetchLock
+     */
+    private AccessToken fetchToken() {
         try {
             log.info("Generating new Amadeus OAuth2 token...");
             log.info("API Key: {}", apiKey.substring(0, Math.min(15, apiKey.length())));
-            log.info("API Secret length: {}", apiSecret.length());
             log.info("OAuth2 endpoint: {}", AMADEUS_AUTH_URL);
             
             String requestBody = String.format(
                 "grant_type=%s&client_id=%s&client_secret=%s",
                 GRANT_TYPE, apiKey, apiSecret
             );
-            log.debug("Request body: {}", requestBody);
 
             String response = restTemplate.postForObject(
                 AMADEUS_AUTH_URL,
@@ -98,21 +152,17 @@ public class AmadeusAuthService {
             String accessToken = jsonNode.get("access_token").asText();
             long expiresIn = jsonNode.get("expires_in").asLong();
 
-            cachedAccessToken = accessToken;
-            // Refresh 30 seconds before expiry for proactive refresh
-            tokenExpiryTime = System.currentTimeMillis() + (expiresIn * 1000) - 30000;
+            AccessToken token = new AccessToken(accessToken, System.currentTimeMillis() + expiresIn * 1000);
+            currentToken.set(token);
 
             log.info("✓ Successfully obtained new Amadeus OAuth2 token");
             log.info("  Token length: {} chars", accessToken.length());
-            log.info("  Valid for {} seconds", expiresIn);
-            log.info("  Will refresh automatically at {}ms", tokenExpiryTime);
+            log.info("  Valid for {} seconds, background refresh {} seconds before expiry", expiresIn, refreshAheadSeconds);
             
-            return accessToken;
+            return token;
 
         } catch (Exception e) {
             log.error("✗ Failed to obtain Amadeus OAuth2 token: {}", e.getMessage());
-            cachedAccessToken = null;
-            tokenExpiryTime = 0;
             throw new RuntimeException("Amadeus authentication failed: " + e.getMessage(), e);
         }
     }
@@ -130,8 +180,21 @@ public class AmadeusAuthService {
      * Invalidate cached token (for testing or manual refresh)
      */
     public void invalidateToken() {
-        cachedAccessToken = null;
-        tokenExpiryTime = 0;
+        currentToken.set(null);
         log.info("Amadeus access token invalidated");
     }
+
+    /**
+     * Immutable token holder; expiresAt is the real expiry reported by Amadeus
+     */
+    private record AccessToken(String value, long expiresAt) {
+
+        boolean isValid(long now) {
+            return now < expiresAt - EXPIRY_SAFETY_MARGIN_MS;
+        }
+
+        long secondsLeft() {
+            return (expiresAt - System.currentTimeMillis()) / 1000;
+        }
+    }
 }
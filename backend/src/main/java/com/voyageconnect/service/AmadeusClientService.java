@@ -1,16 +1,34 @@
 package com.voyageconnect.service;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.voyageconnect.cache.DestinationSearchCache;
+import com.voyageconnect.cache.FlightSearchKey;
+import com.voyageconnect.cache.StaleWhileRevalidateCache;
+import com.voyageconnect.client.JsonStreams;
+import com.voyageconnect.client.ReactiveBodies;
+import com.voyageconnect.client.RequestCoalescer;
+import com.voyageconnect.dto.FlexibleFlightSearchDTO;
 import com.voyageconnect.dto.FlightDTO;
+import com.voyageconnect.dto.FlightSegmentDTO;
 import com.voyageconnect.dto.HotelDTO;
+import com.voyageconnect.dto.ItinerarySearchDTO;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
@@ -18,6 +36,16 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 @Slf4j
@@ -26,179 +54,390 @@ public class AmadeusClientService {
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
     private final AmadeusAuthService authService;
+    private final DestinationSearchCache destinationCache;
+    private final DestinationIndexService destinationIndex;
+    private final StaleWhileRevalidateCache<FlightSearchKey, List<FlightDTO>> flightOfferCache;
+    private final RequestCoalescer requestCoalescer;
+    private final HotelIdReferenceService hotelIdReferenceService;
+    private final Executor providerExecutor;
+    private final WebClient providerWebClient;
 
-    private static final String AMADEUS_API_URL = "https://test.api.amadeus.com/v2";
+    @Value("${voyageconnect.hotel-offers.chunk-size:20}")
+    private int hotelOfferChunkSize;
+
+    @Value("${voyageconnect.hotel-offers.latency-budget-ms:5000}")
+    private long hotelOfferBudgetMs;
+
+    @Value("${voyageconnect.flights.max-flex-days:3}")
+    private int maxFlexDays;
+
+    @Value("${voyageconnect.flights.flex-budget-ms:8000}")
+    private long flexBudgetMs;
+
+    @Value("${voyageconnect.flights.max-legs:6}")
+    private int maxLegs;
+
+    @Value("${voyageconnect.flights.max-itineraries:10}")
+    private int maxItineraries;
+
+    @Value("${voyageconnect.flights.itinerary-budget-ms:8000}")
+    private long itineraryBudgetMs;
 
-    public AmadeusClientService(RestTemplate restTemplate, ObjectMapper objectMapper, AmadeusAuthService authService) {
+    private static final String PROVIDER = "amadeus";
+    private static final String AMADEUS_API_URL = "https://test.api.amadeus.com/v2";
+    // Amadeus reference-data endpoints return 10 items per page unless page[limit] is set
+    private static final int AMADEUS_DEFAULT_PAGE_LIMIT = 10;
+    // Matches max=10 on the flight-offers request
+    private static final int MAX_FLIGHT_OFFERS = 10;
+    // Upper bound on combinations examined per itinerary search (most are rejected only for bad connections)
+    private static final int MAX_COMBINATIONS_VISITED = 10_000;
+
+    public AmadeusClientService(RestTemplate restTemplate, ObjectMapper objectMapper, AmadeusAuthService authService,
+                                DestinationSearchCache destinationCache,
+                                DestinationIndexService destinationIndex,
+                                StaleWhileRevalidateCache<FlightSearchKey, List<FlightDTO>> flightOfferCache,
+                                RequestCoalescer requestCoalescer,
+                                HotelIdReferenceService hotelIdReferenceService,
+                                @Qualifier("providerExecutor") Executor providerExecutor,
+                                WebClient providerWebClient) {
         this.restTemplate = restTemplate;
         this.objectMapper = objectMapper;
         this.authService = authService;
+        this.destinationCache = destinationCache;
+        this.destinationIndex = destinationIndex;
+        this.flightOfferCache = flightOfferCache;
+        this.requestCoalescer = requestCoalescer;
+        this.hotelIdReferenceService = hotelIdReferenceService;
+        this.providerExecutor = providerExecutor;
+        this.providerWebClient = providerWebClient;
     }
 
     /**
      * Search destinations by keyword (city name, IATA code, etc.)
-     * Includes fallback for Moroccan cities to ensure they appear in results
+     * Answered from the offline destination index (prefix, accent- and typo-tolerant) without a network call;
+     * Amadeus is only queried when the index has no exact or prefix match, and its results are added to the
+     * index. Typo matches alone ("parma" -> Paris) do not answer the keyword: they follow the Amadeus results.
+     * Amadeus results are cached per keyword; longer prefixes are served from a cached shorter prefix
      */
     public List<Map<String, Object>> searchDestinations(String keyword) {
+        DestinationIndexService.Suggestions local = destinationIndex.search(keyword);
+        if (!local.direct().isEmpty()) {
+            return local.all();
+        }
         try {
-            String accessToken = authService.getAccessToken();
-            String encodedKeyword = URLEncoder.encode(keyword, StandardCharsets.UTF_8);
-            // Using v1 API for destinations (not v2)
-            String url = String.format("https://test.api.amadeus.com/v1/reference-data/locations?subType=CITY&keyword=%s", encodedKeyword);
-
-            HttpHeaders headers = createAuthHeaders(accessToken);
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            log.info("✓ Got valid access token, searching Amadeus destinations");
-            log.info("  Searching for: {}", keyword);
-            log.info("  URL: {}", url);
-            String response = restTemplate.exchange(url, org.springframework.http.HttpMethod.GET, entity, String.class).getBody();
-            
-            if (response == null || response.isEmpty()) {
-                log.error("✗ Amadeus API returned empty response for destinations");
-                return getMoroccanCityFallback(keyword);
-            }
-            
-            JsonNode jsonNode = objectMapper.readTree(response);
-            JsonNode data = jsonNode.get("data");
-
-            List<Map<String, Object>> destinations = new ArrayList<>();
-            if (data != null && data.isArray()) {
-                data.forEach(item -> {
-                    Map<String, Object> dest = new HashMap<>();
-                    dest.put("id", item.get("id").asText());
-                    dest.put("name", item.get("name").asText());
-                    dest.put("iataCode", item.has("iataCode") ? item.get("iataCode").asText() : "");
-                    dest.put("country", item.has("address") && item.get("address").has("countryName") ? 
-                        item.get("address").get("countryName").asText() : "");
-                    destinations.add(dest);
-                    
-                    // Log each destination for debugging
-                    log.debug("  → {} ({}) - {}", dest.get("name"), dest.get("iataCode"), dest.get("country"));
-                });
-            }
-
-            log.info("Found {} destinations for keyword '{}' from Amadeus API", destinations.size(), keyword);
-            
-            // If no Moroccan cities found but keyword matches a Moroccan city, add fallback
-            boolean hasMoroccanCity = destinations.stream()
-                .anyMatch(d -> "Morocco".equalsIgnoreCase(d.get("country").toString()));
-            
-            if (!hasMoroccanCity) {
-                List<Map<String, Object>> fallback = getMoroccanCityFallback(keyword);
-                if (!fallback.isEmpty()) {
-                    log.info("  Adding {} Moroccan city fallback(s) for keyword '{}'", fallback.size(), keyword);
-                    destinations.addAll(0, fallback); // Add at beginning
-                }
+            List<Map<String, Object>> destinations;
+            List<Map<String, Object>> cached = destinationCache.get(keyword);
+            if (cached != null) {
+                log.debug("Destination cache hit for keyword '{}' ({} results)", keyword, cached.size());
+                destinations = new ArrayList<>(cached);
+            } else {
+                // Identical concurrent keystrokes share one Amadeus call
+                destinations = new ArrayList<>(requestCoalescer.execute(PROVIDER, "locations:" + DestinationSearchCache.normalize(keyword),
+                    () -> fetchDestinations(keyword)));
             }
-            
-            return destinations;
+            destinationIndex.learn(destinations);
+            return withSimilar(destinations, local.similar());
 
         } catch (Exception e) {
             log.error("✗ Error searching destinations from Amadeus: {}", e.getMessage());
             log.debug("Full exception", e);
-            // Return Moroccan city fallback if API fails
-            return getMoroccanCityFallback(keyword);
+            return new ArrayList<>(local.similar());
         }
     }
 
     /**
-     * Fallback for Moroccan cities when Amadeus API doesn't return them
-     * Matches keyword against known Moroccan cities and IATA codes
+     * Live results first, then the index's typo matches they do not already contain (same IATA code)
      */
-    private List<Map<String, Object>> getMoroccanCityFallback(String keyword) {
-        if (keyword == null || keyword.length() < 2) {
+    private static List<Map<String, Object>> withSimilar(List<Map<String, Object>> live,
+                                                         List<Map<String, Object>> similar) {
+        Set<Object> codes = new HashSet<>();
+        live.forEach(destination -> codes.add(destination.get("iataCode")));
+        similar.stream().filter(destination -> !codes.contains(destination.get("iataCode"))).forEach(live::add);
+        return live;
+    }
+
+    /**
+     * Live Amadeus destination lookup; successful responses are stored in the destination cache
+     */
+    private List<Map<String, Object>> fetchDestinations(String keyword) throws Exception {
+        String accessToken = authService.getAccessToken();
+        String encodedKeyword = URLEncoder.encode(keyword, StandardCharsets.UTF_8);
+        // Using v1 API for destinations (not v2)
+        String url = String.format("https://test.api.amadeus.com/v1/reference-data/locations?subType=CITY&keyword=%s", encodedKeyword);
+
+        HttpHeaders headers = createAuthHeaders(accessToken);
+        HttpEntity<String> entity = new HttpEntity<>(headers);
+
+        log.info("✓ Got valid access token, searching Amadeus destinations");
+        log.info("  Searching for: {}", keyword);
+        log.info("  URL: {}", url);
+        String response = restTemplate.exchange(url, org.springframework.http.HttpMethod.GET, entity, String.class).getBody();
+        
+        if (response == null || response.isEmpty()) {
+            log.error("✗ Amadeus API returned empty response for destinations");
             return new ArrayList<>();
         }
         
-        String lowerKeyword = keyword.toLowerCase().trim();
-        List<Map<String, Object>> moroccanCities = new ArrayList<>();
-        
-        // Moroccan cities with IATA codes
-        Map<String, String[]> cities = new HashMap<>();
-        cities.put("CMN", new String[]{"Casablanca", "Mohamed V International Airport"});
-        cities.put("RAK", new String[]{"Marrakech", "Marrakech Menara Airport"});
-        cities.put("RBA", new String[]{"Rabat", "Rabat-Salé Airport"});
-        cities.put("FEZ", new String[]{"Fes", "Fès-Saïss Airport"});
-        cities.put("TNG", new String[]{"Tangier", "Tangier Ibn Battouta Airport"});
-        cities.put("AGA", new String[]{"Agadir", "Agadir Al Massira Airport"});
-        cities.put("OUD", new String[]{"Ouarzazate", "Ouarzazate Airport"});
-        cities.put("ESU", new String[]{"Essaouira", "Essaouira-Mogador Airport"});
-        
-        for (Map.Entry<String, String[]> entry : cities.entrySet()) {
-            String iataCode = entry.getKey();
-            String cityName = entry.getValue()[0];
-            String airportName = entry.getValue()[1];
-            
-            // Match if keyword matches IATA code or city name
-            if (iataCode.toLowerCase().contains(lowerKeyword) || 
-                cityName.toLowerCase().contains(lowerKeyword) ||
-                airportName.toLowerCase().contains(lowerKeyword)) {
-                
-                Map<String, Object> city = new HashMap<>();
-                city.put("id", "MOR_" + iataCode);
-                city.put("name", cityName);
-                city.put("iataCode", iataCode);
-                city.put("country", "Morocco");
-                moroccanCities.add(city);
+        JsonNode jsonNode = objectMapper.readTree(response);
+        JsonNode data = jsonNode.get("data");
+
+        List<Map<String, Object>> destinations = new ArrayList<>();
+        if (data != null && data.isArray()) {
+            data.forEach(item -> {
+                Map<String, Object> dest = new HashMap<>();
+                dest.put("id", item.get("id").asText());
+                dest.put("name", item.get("name").asText());
+                dest.put("iataCode", item.has("iataCode") ? item.get("iataCode").asText() : "");
+                dest.put("country", item.has("address") && item.get("address").has("countryName") ? 
+                    item.get("address").get("countryName").asText() : "");
+                destinations.add(dest);
                 
-                log.debug("  ✓ Fallback match: {} ({}) - Morocco", cityName, iataCode);
-            }
+                // Log each destination for debugging
+                log.debug("  → {} ({}) - {}", dest.get("name"), dest.get("iataCode"), dest.get("country"));
+            });
         }
-        
-        return moroccanCities;
+
+        log.info("Found {} destinations for keyword '{}' from Amadeus API", destinations.size(), keyword);
+
+        // Complete when Amadeus returned every match (meta.count), i.e. no further result pages
+        int totalCount = jsonNode.path("meta").path("count").asInt(-1);
+        boolean complete = totalCount >= 0
+            ? totalCount <= destinations.size()
+            : destinations.size() < AMADEUS_DEFAULT_PAGE_LIMIT;
+        destinationCache.put(keyword, destinations, complete);
+
+        return destinations;
     }
 
     /**
      * Search flights using Amadeus Flight Offers API
      */
     public List<FlightDTO> searchFlights(String origin, String destination, String departureDate) {
-        try {
-            String accessToken = authService.getAccessToken();
-            log.info("✓ Got valid access token, searching Amadeus API");
-            log.info("  Route: {} → {} on {}", origin, destination, departureDate);
-            
-            String url = String.format("%s/shopping/flight-offers?originLocationCode=%s&destinationLocationCode=%s&departureDate=%s&adults=1&max=10",
-                    AMADEUS_API_URL, origin, destination, departureDate);
-
-            HttpHeaders headers = createAuthHeaders(accessToken);
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            String response = restTemplate.exchange(url, org.springframework.http.HttpMethod.GET, entity, String.class).getBody();
-            if (response == null || response.isEmpty()) {
-                log.error("✗ Amadeus API returned empty response for flights");
-                return new ArrayList<>();
-            }
-            return parseFlightOffers(response, destination);
+        return searchFlights(origin, destination, departureDate, 1);
+    }
 
+    /**
+     * Search flights for a number of adult passengers
+     * Offers are cached per (origin, destination, date, adults): fresh results are served directly,
+     * stale ones are served immediately while a single background refresh runs
+     */
+    public List<FlightDTO> searchFlights(String origin, String destination, String departureDate, int adults) {
+        try {
+            return new ArrayList<>(cachedFlightOffers(FlightSearchKey.of(origin, destination, departureDate, adults)));
         } catch (Exception e) {
             log.error("✗ Error searching flights from Amadeus: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
+
+    /**
+     * Offers for one search from the offer cache, or one coalesced Amadeus call
+     * @throws Exception when Amadeus could not be queried and nothing usable is cached
+     */
+    private List<FlightDTO> cachedFlightOffers(FlightSearchKey key) throws Exception {
+        return flightOfferCache.get(key,
+            () -> requestCoalescer.execute(PROVIDER, "flight-offers:" + key, () -> fetchFlightOffers(key)));
+    }
+
+    /**
+     * Non-blocking flight search (WebClient): served from the offer cache when present, otherwise one
+     * Amadeus call that holds no thread while waiting and fills the same cache
+     * Errors complete with an empty list, like searchFlights
+     */
+    public Mono<List<FlightDTO>> searchFlightsReactive(String origin, String destination, String departureDate, int adults) {
+        FlightSearchKey key;
+        try {
+            key = FlightSearchKey.of(origin, destination, departureDate, adults);
+        } catch (Exception e) {
+            return Mono.just(new ArrayList<>());
+        }
+        List<FlightDTO> cached = flightOfferCache.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(new ArrayList<>(cached));
+        }
+        return authService.accessToken()
+            .flatMap(accessToken -> ReactiveBodies.parse(
+                providerWebClient.get()
+                    .uri(flightOffersUrl(key))
+                    .headers(headers -> headers.setBearerAuth(accessToken))
+                    .retrieve()
+                    .bodyToFlux(DataBuffer.class),
+                body -> parseFlightOffers(body, key.destination())))
+            .map(List::copyOf)
+            .doOnNext(flights -> flightOfferCache.put(key, flights))
+            .<List<FlightDTO>>map(ArrayList::new)
+            .onErrorResume(e -> {
+                log.error("✗ Error searching flights from Amadeus (reactive): {}", e.getMessage());
+                return Mono.just(new ArrayList<>());
+            });
+    }
+
+    /**
+     * Flexible-date search: departureDate ± flexDays (capped at max-flex-days, past days skipped)
+     * Days already in the offer cache are answered inline; the others are searched concurrently on the
+     * provider executor and awaited until a shared latency budget runs out. Each day is cached and coalesced
+     * per date like single-date searches; a day that failed or missed the budget is marked incomplete.
+     * Flight IDs are renumbered across days (the cached per-day lists are not modified).
+     */
+    public FlexibleFlightSearchDTO searchFlightsFlexible(String origin, String destination, String departureDate,
+                                                         int flexDays, int adults) {
+        LocalDate center = LocalDate.parse(departureDate.trim());
+        int window = Math.max(0, Math.min(flexDays, maxFlexDays));
+        LocalDate today = LocalDate.now();
+
+        Map<LocalDate, CompletableFuture<List<FlightDTO>>> searches = new LinkedHashMap<>();
+        for (LocalDate date = center.minusDays(window); !date.isAfter(center.plusDays(window)); date = date.plusDays(1)) {
+            if (date.isBefore(today)) {
+                continue;
+            }
+            searches.put(date, startSearch(FlightSearchKey.of(origin, destination, date.toString(), adults)));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flexBudgetMs);
+        List<FlexibleFlightSearchDTO.DaySummary> days = new ArrayList<>();
+        List<FlightDTO> flights = new ArrayList<>();
+        long flightId = 1;
+        for (Map.Entry<LocalDate, CompletableFuture<List<FlightDTO>>> search : searches.entrySet()) {
+            List<FlightDTO> dayFlights = awaitSearch("Flexible-date search for " + search.getKey(),
+                search.getValue(), deadline, flexBudgetMs);
+            if (dayFlights != null) {
+                for (FlightDTO flight : dayFlights) {
+                    flights.add(new FlightDTO(flightId++, flight.getDeparture(), flight.getArrival(), flight.getPrice(),
+                        flight.getAvailableSeats(), flight.getDestinationId(), flight.getAirline(),
+                        flight.getFlightNumber(), flight.getImageUrl(), flight.getSegments(), flight.getDuration()));
+                }
+            }
+            days.add(new FlexibleFlightSearchDTO.DaySummary(search.getKey().toString(), cheapestPrice(dayFlights),
+                dayFlights != null ? dayFlights.size() : 0, dayFlights != null));
+        }
+        log.info("✓ Flexible search {} → {} around {} (±{}): {} offers over {} days",
+            origin, destination, center, window, flights.size(), days.size());
+        return new FlexibleFlightSearchDTO(center.toString(), window, days, flights);
+    }
+
+    /**
+     * Round-trip / multi-city search: every leg is a one-way search (cached and coalesced like searchFlights),
+     * all legs run concurrently within one latency budget, and the cheapest connecting combinations
+     * (max-itineraries) are priced here instead of by the client. A leg that failed or missed the budget
+     * is marked incomplete
+     */
+    public ItinerarySearchDTO searchItineraries(List<FlightSearchKey> legs) {
+        if (legs.isEmpty() || legs.size() > maxLegs) {
+            throw new IllegalArgumentException("Between 1 and " + maxLegs + " legs are supported");
+        }
+        List<CompletableFuture<List<FlightDTO>>> searches = new ArrayList<>();
+        for (FlightSearchKey leg : legs) {
+            searches.add(startSearch(leg));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(itineraryBudgetMs);
+        List<ItinerarySearchDTO.LegSummary> summaries = new ArrayList<>();
+        List<List<FlightDTO>> legOffers = new ArrayList<>();
+        for (int i = 0; i < legs.size(); i++) {
+            FlightSearchKey leg = legs.get(i);
+            List<FlightDTO> offers = awaitSearch("Itinerary leg " + leg, searches.get(i), deadline, itineraryBudgetMs);
+            legOffers.add(offers != null ? offers : List.of());
+            summaries.add(new ItinerarySearchDTO.LegSummary(leg.origin(), leg.destination(), leg.departureDate(),
+                cheapestPrice(offers), offers != null ? offers.size() : 0, offers != null));
+        }
+
+        List<ItinerarySearchDTO.Itinerary> itineraries =
+            ItineraryCombiner.cheapest(legOffers, maxItineraries, MAX_COMBINATIONS_VISITED);
+        log.info("✓ Itinerary search over {} legs: {} itineraries", legs.size(), itineraries.size());
+        return new ItinerarySearchDTO(summaries, itineraries);
+    }
+
+    /**
+     * Start one one-way search: answered inline when the offer cache holds the key, otherwise on the
+     * provider executor (completes with null when the executor is saturated). A failed search completes
+     * exceptionally instead of with an empty list
+     */
+    private CompletableFuture<List<FlightDTO>> startSearch(FlightSearchKey key) {
+        if (flightOfferCache.getIfPresent(key) != null) {
+            try {
+                return CompletableFuture.completedFuture(new ArrayList<>(cachedFlightOffers(key)));
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return new ArrayList<>(cachedFlightOffers(key));
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, providerExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Provider executor saturated, skipping flight search {}", key);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * Wait for a search until the shared deadline; null when it failed or did not finish in time
+     */
+    private List<FlightDTO> awaitSearch(String label, CompletableFuture<List<FlightDTO>> search, long deadline,
+                                        long budgetMs) {
+        try {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            return search.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // The search keeps running and still fills the offer cache for the next request
+            log.warn("{} missed the {} ms budget", label, budgetMs);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            log.warn("{} failed: {}", label, e.getCause().getMessage());
+            return null;
+        }
+    }
+
+    private static BigDecimal cheapestPrice(List<FlightDTO> flights) {
+        if (flights == null) {
+            return null;
+        }
+        return flights.stream().map(FlightDTO::getPrice).filter(Objects::nonNull).min(BigDecimal::compareTo).orElse(null);
+    }
+
+    /**
+     * Live Amadeus flight-offers call; throws on failure so errors are never cached
+     */
+    private List<FlightDTO> fetchFlightOffers(FlightSearchKey key) throws Exception {
+        String accessToken = authService.getAccessToken();
+        log.info("✓ Got valid access token, searching Amadeus API");
+        log.info("  Route: {} → {} on {} ({} adult(s))", key.origin(), key.destination(), key.departureDate(), key.adults());
+        
+        String url = flightOffersUrl(key);
+
+        HttpHeaders headers = createAuthHeaders(accessToken);
+
+        // Offers are parsed straight from the response stream
+        List<FlightDTO> flights = restTemplate.execute(url, org.springframework.http.HttpMethod.GET,
+            request -> request.getHeaders().addAll(headers),
+            response -> parseFlightOffers(response.getBody(), key.destination()));
+        if (flights == null) {
+            throw new IllegalStateException("Empty Amadeus flight-offers response for " + key);
+        }
+        return List.copyOf(flights);
+    }
+
+    private static String flightOffersUrl(FlightSearchKey key) {
+        return String.format("%s/shopping/flight-offers?originLocationCode=%s&destinationLocationCode=%s&departureDate=%s&adults=%d&max=10",
+                AMADEUS_API_URL, key.origin(), key.destination(), key.departureDate(), key.adults());
+    }
+
     /**
      * Search hotels using Amadeus TWO-STEP flow:
-     * 1. Get hotel IDs by city
+     * 1. Get hotel IDs by city (served from HotelIdReferenceService)
      * 2. Get hotel offers using those IDs + dates
      */
     public List<HotelDTO> searchHotels(String cityCode, String checkIn, String checkOut) {
         try {
-            String accessToken = authService.getAccessToken();
-            log.info("✓ Starting Amadeus hotel search for {} ({} to {})", cityCode, checkIn, checkOut);
-            
-            // STEP 1: Get hotel IDs by city
-            List<String> hotelIds = getHotelIdsByCity(accessToken, cityCode);
-            if (hotelIds.isEmpty()) {
-                log.warn("No hotels found for city code: {}", cityCode);
-                return new ArrayList<>();
-            }
-            log.info("Found {} hotels in {}", hotelIds.size(), cityCode);
-            
-            // STEP 2: Get hotel offers using those IDs
-            List<HotelDTO> hotels = getHotelOffers(accessToken, hotelIds, checkIn, checkOut);
-            log.info("Retrieved {} hotel offers", hotels.size());
-            return hotels;
-
+            String key = String.format("hotels:%s:%s:%s", cityCode.trim().toUpperCase(), checkIn, checkOut);
+            return new ArrayList<>(requestCoalescer.execute(PROVIDER, key, () -> fetchHotels(cityCode, checkIn, checkOut)));
         } catch (Exception e) {
             log.error("✗ Error searching hotels from Amadeus: {}", e.getMessage());
             log.debug("Full error:", e);
@@ -206,165 +445,251 @@ public class AmadeusClientService {
         }
     }
 
+    private List<HotelDTO> fetchHotels(String cityCode, String checkIn, String checkOut) throws Exception {
+        String accessToken = authService.getAccessToken();
+        log.info("✓ Starting Amadeus hotel search for {} ({} to {})", cityCode, checkIn, checkOut);
+        
+        // STEP 1: Get hotel IDs by city (persisted reference data, usually no network call)
+        List<String> hotelIds = hotelIdReferenceService.getHotelIds(cityCode);
+        if (hotelIds.isEmpty()) {
+            log.warn("No hotels found for city code: {}", cityCode);
+            return List.of();
+        }
+        log.info("Found {} hotels in {}", hotelIds.size(), cityCode);
+        
+        // STEP 2: Get hotel offers using those IDs
+        List<HotelDTO> hotels = getHotelOffers(accessToken, hotelIds, checkIn, checkOut);
+        log.info("Retrieved {} hotel offers", hotels.size());
+        return hotels;
+    }
+
     /**
-     * STEP 1: Get hotel IDs for a given city
-     * Calls: GET /v1/reference-data/locations/hotels/by-city
+     * STEP 2: Get hotel offers for given IDs and dates
+     * Large ID sets are split into chunks fetched in parallel on the provider executor;
+     * chunks are merged as they complete, and chunks still running when the latency budget
+     * runs out are dropped from the result
      */
-    private List<String> getHotelIdsByCity(String accessToken, String cityCode) throws Exception {
-        String url = String.format(
-            "https://test.api.amadeus.com/v1/reference-data/locations/hotels/by-city?cityCode=%s&max=5",
-            cityCode);
-        log.info("  [Step 1] Fetching hotel IDs from: {}", url);
+    private List<HotelDTO> getHotelOffers(String accessToken, List<String> hotelIds, String checkIn, String checkOut) throws Exception {
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < hotelIds.size(); i += hotelOfferChunkSize) {
+            chunks.add(hotelIds.subList(i, Math.min(i + hotelOfferChunkSize, hotelIds.size())));
+        }
+        if (chunks.size() == 1) {
+            return fetchHotelOfferChunk(accessToken, chunks.get(0), checkIn, checkOut);
+        }
 
-        HttpHeaders headers = createAuthHeaders(accessToken);
-        HttpEntity<String> entity = new HttpEntity<>(headers);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(hotelOfferBudgetMs);
+        CompletionService<List<HotelDTO>> completion = new ExecutorCompletionService<>(providerExecutor);
+        List<Future<List<HotelDTO>>> pending = new ArrayList<>();
+        for (List<String> chunk : chunks) {
+            try {
+                pending.add(completion.submit(() -> fetchHotelOfferChunk(accessToken, chunk, checkIn, checkOut)));
+            } catch (RejectedExecutionException e) {
+                log.warn("  [Step 2] Provider executor saturated, skipping chunk of {} hotel IDs", chunk.size());
+            }
+        }
 
-        String response = restTemplate.exchange(url, org.springframework.http.HttpMethod.GET, entity, String.class).getBody();
-        
-        List<String> hotelIds = new ArrayList<>();
-        if (response != null && !response.isEmpty()) {
-            JsonNode jsonNode = objectMapper.readTree(response);
-            JsonNode data = jsonNode.get("data");
-            
-            if (data != null && data.isArray()) {
-                for (JsonNode hotel : data) {
-                    if (hotel.has("hotelId")) {
-                        hotelIds.add(hotel.get("hotelId").asText());
-                    }
+        List<HotelDTO> hotels = new ArrayList<>();
+        int received = 0;
+        try {
+            while (received < pending.size()) {
+                long remaining = deadline - System.nanoTime();
+                Future<List<HotelDTO>> done = remaining > 0 ? completion.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                if (done == null) {
+                    log.warn("  [Step 2] Latency budget of {} ms reached, {} of {} chunks merged",
+                        hotelOfferBudgetMs, received, pending.size());
+                    break;
+                }
+                received++;
+                try {
+                    hotels.addAll(done.get());
+                } catch (ExecutionException e) {
+                    log.warn("  [Step 2] Hotel offer chunk failed: {}", e.getCause().getMessage());
                 }
             }
+        } finally {
+            pending.forEach(future -> future.cancel(true));
         }
-        
-        log.info("  [Step 1] Extracted {} hotel IDs: {}", hotelIds.size(), hotelIds);
-        return hotelIds;
+
+        // Chunks number their hotels from 1; renumber the merged list
+        long hotelId = 1;
+        for (HotelDTO hotel : hotels) {
+            hotel.setId(hotelId++);
+        }
+        return hotels;
     }
 
     /**
-     * STEP 2: Get hotel offers for given IDs and dates
+     * Hotel offers for one chunk of hotel IDs
      * Calls: GET /v3/shopping/hotel-offers
      */
-    private List<HotelDTO> getHotelOffers(String accessToken, List<String> hotelIds, String checkIn, String checkOut) throws Exception {
+    private List<HotelDTO> fetchHotelOfferChunk(String accessToken, List<String> hotelIds, String checkIn, String checkOut) throws Exception {
         // Build comma-separated hotel IDs string
         String hotelIdString = String.join(",", hotelIds);
         
         String url = String.format(
-            "https://test.api.amadeus.com/v3/shopping/hotel-offers?hotelIds=%s&checkInDate=%s&checkOutDate=%s&adults=1&max=10",
+            "https://test.api.amadeus.com/v3/shopping/hotel-offers?hotelIds=%s&checkInDate=%s&checkOutDate=%s&adults=1",
             hotelIdString, checkIn, checkOut);
         log.info("  [Step 2] Fetching offers from: {}", url);
 
         HttpHeaders headers = createAuthHeaders(accessToken);
-        HttpEntity<String> entity = new HttpEntity<>(headers);
 
-        String response = restTemplate.exchange(url, org.springframework.http.HttpMethod.GET, entity, String.class).getBody();
+        List<HotelDTO> hotels = restTemplate.execute(url, org.springframework.http.HttpMethod.GET,
+            request -> request.getHeaders().addAll(headers),
+            response -> parseHotelOffers(response.getBody()));
+        if (hotels == null) {
+            hotels = new ArrayList<>();
+        }
         
+        log.info("  [Step 2] Parsed {} hotel offers", hotels.size());
+        return hotels;
+    }
+
+    /**
+     * Stream-parse a /v3/shopping/hotel-offers response
+     * Reads only data[].hotel.{name, rating, address.lines[0]} and data[].offers[0].price.total
+     */
+    private List<HotelDTO> parseHotelOffers(InputStream body) throws IOException {
         List<HotelDTO> hotels = new ArrayList<>();
-        if (response != null && !response.isEmpty()) {
-            JsonNode jsonNode = objectMapper.readTree(response);
-            JsonNode data = jsonNode.get("data");
-            
-            if (data != null && data.isArray()) {
-                long hotelId = 1;
-                for (JsonNode offer : data) {
-                    try {
-                        String hotelName = offer.has("hotel") && offer.get("hotel").has("name") ? 
-                            offer.get("hotel").get("name").asText() : "Hotel " + hotelId;
-                        
-                        String hotelCode = offer.has("hotel") && offer.get("hotel").has("hotelId") ?
-                            offer.get("hotel").get("hotelId").asText() : "";
-                        
-                        // Get price from the first offer
-                        BigDecimal price = BigDecimal.ZERO;
-                        if (offer.has("offers") && offer.get("offers").size() > 0) {
-                            JsonNode firstOffer = offer.get("offers").get(0);
-                            if (firstOffer.has("price") && firstOffer.get("price").has("total")) {
-                                price = new BigDecimal(firstOffer.get("price").get("total").asText());
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (!JsonStreams.moveToRootArray(parser, "data")) {
+                return hotels;
+            }
+            long hotelId = 1;
+            while (JsonStreams.nextObjectElement(parser)) {
+                String hotelName = null;
+                String address = "City Center";
+                String rating = null;
+                String price = null;
+
+                String field;
+                while ((field = JsonStreams.nextField(parser)) != null) {
+                    if ("hotel".equals(field) && parser.currentToken() == JsonToken.START_OBJECT) {
+                        String hotelField;
+                        while ((hotelField = JsonStreams.nextField(parser)) != null) {
+                            switch (hotelField) {
+                                case "name" -> hotelName = JsonStreams.readText(parser);
+                                case "rating" -> rating = JsonStreams.readText(parser);
+                                case "address" -> {
+                                    String line = readAddressLine(parser);
+                                    if (line != null) {
+                                        address = line;
+                                    }
+                                }
+                                default -> parser.skipChildren();
                             }
                         }
-                        
-                        // Get address
-                        String address = "City Center";
-                        if (offer.has("hotel") && offer.get("hotel").has("address")) {
-                            JsonNode addr = offer.get("hotel").get("address");
-                            if (addr.has("lines") && addr.get("lines").size() > 0) {
-                                address = addr.get("lines").get(0).asText();
+                    } else if ("offers".equals(field) && parser.currentToken() == JsonToken.START_ARRAY) {
+                        // Get price from the first offer
+                        boolean first = true;
+                        while (JsonStreams.nextObjectElement(parser)) {
+                            if (first) {
+                                price = readPriceField(parser, "total");
+                                first = false;
+                            } else {
+                                parser.skipChildren();
                             }
                         }
-                        
-                        // Get rating
-                        int rating = 4;
-                        if (offer.has("hotel") && offer.get("hotel").has("rating")) {
-                            rating = offer.get("hotel").get("rating").asInt();
-                        }
-                        
-                        HotelDTO hotel = new HotelDTO(
-                            hotelId++,
-                            hotelName,
-                            price,
-                            Math.max(1, 30 - (int)(Math.random() * 20)), // Available rooms
-                            1L,
-                            address,
-                            rating,
-                            "https://images.unsplash.com/photo-1566073771259-6a8506099945?w=800",
-                            "Comfortable accommodations with quality service and convenient amenities"
-                        );
-                        hotels.add(hotel);
-                    } catch (Exception e) {
-                        log.warn("Error parsing hotel offer: {}", e.getMessage());
+                    } else {
+                        parser.skipChildren();
                     }
                 }
+
+                try {
+                    HotelDTO hotel = new HotelDTO(
+                        hotelId,
+                        hotelName != null ? hotelName : "Hotel " + hotelId,
+                        price != null ? new BigDecimal(price) : BigDecimal.ZERO,
+                        Math.max(1, 30 - (int)(Math.random() * 20)), // Available rooms
+                        1L,
+                        address,
+                        rating != null ? Integer.parseInt(rating) : 4,
+                        "https://images.unsplash.com/photo-1566073771259-6a8506099945?w=800",
+                        "Comfortable accommodations with quality service and convenient amenities"
+                    );
+                    hotels.add(hotel);
+                    hotelId++;
+                } catch (Exception e) {
+                    log.warn("Error parsing hotel offer: {}", e.getMessage());
+                }
             }
         }
-        
-        log.info("  [Step 2] Parsed {} hotel offers", hotels.size());
         return hotels;
     }
 
     /**
-     * Parse flight offers response from Amadeus
+     * Stream-parse a flight-offers response from Amadeus
+     * Reads only price.grandTotal and the first / last segment of the itineraries,
+     * and stops once MAX_FLIGHT_OFFERS offers have been parsed
      */
-    private List<FlightDTO> parseFlightOffers(String response, String destinationCode) throws Exception {
+    private List<FlightDTO> parseFlightOffers(InputStream body, String destinationCode) throws IOException {
         List<FlightDTO> flights = new ArrayList<>();
-        JsonNode jsonNode = objectMapper.readTree(response);
-        JsonNode data = jsonNode.get("data");
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            // A valid answer always has "data" (empty when there are no offers): anything else is a failed
+            // call and must not be cached as "no offers"
+            if (!JsonStreams.moveToRootArray(parser, "data")) {
+                throw new IOException("Empty or unexpected Amadeus flight-offers response");
+            }
 
-        if (data != null && data.isArray()) {
             long flightId = 1;
-            for (JsonNode offer : data) {
-                try {
-                    JsonNode itineraries = offer.get("itineraries");
-                    if (itineraries != null && itineraries.size() > 0) {
-                        JsonNode firstSegment = itineraries.get(0).get("segments").get(0);
-                        
-                        LocalDateTime departure = LocalDateTime.parse(
-                            firstSegment.get("departure").get("at").asText(),
-                            DateTimeFormatter.ISO_DATE_TIME);
-                        LocalDateTime arrival = LocalDateTime.parse(
-                            itineraries.get(itineraries.size() - 1)
-                                .get("segments")
-                                .get(itineraries.get(itineraries.size() - 1).get("segments").size() - 1)
-                                .get("arrival").get("at").asText(),
-                            DateTimeFormatter.ISO_DATE_TIME);
-
-                        BigDecimal price = new BigDecimal(offer.get("price").get("grandTotal").asText());
-                        String airline = firstSegment.get("operating").has("carrierCode") ? 
-                            firstSegment.get("operating").get("carrierCode").asText() : 
-                            firstSegment.get("carrierCode").asText();
-
-                        FlightDTO flight = new FlightDTO(
-                            flightId++,
-                            departure,
-                            arrival,
-                            price,
-                            100 + (int)(Math.random() * 50), // Mock available seats
-                            1L, // destination ID
-                            airline,
-                            firstSegment.get("number").asText(),
-                            "https://images.unsplash.com/photo-1542296332-2e4473faf563?w=800"
-                        );
-                        flights.add(flight);
+            while (flights.size() < MAX_FLIGHT_OFFERS && JsonStreams.nextObjectElement(parser)) {
+                String grandTotal = null;
+                String duration = null;
+                List<Segment> segments = new ArrayList<>();
+
+                String field;
+                while ((field = JsonStreams.nextField(parser)) != null) {
+                    if ("price".equals(field)) {
+                        grandTotal = JsonStreams.readTextField(parser, "grandTotal");
+                    } else if ("itineraries".equals(field) && parser.currentToken() == JsonToken.START_ARRAY) {
+                        while (JsonStreams.nextObjectElement(parser)) {
+                            String itineraryField;
+                            while ((itineraryField = JsonStreams.nextField(parser)) != null) {
+                                if ("duration".equals(itineraryField) && duration == null) {
+                                    duration = JsonStreams.readText(parser);
+                                } else if ("segments".equals(itineraryField) && parser.currentToken() == JsonToken.START_ARRAY) {
+                                    while (JsonStreams.nextObjectElement(parser)) {
+                                        segments.add(readSegment(parser));
+                                    }
+                                } else {
+                                    parser.skipChildren();
+                                }
+                            }
+                        }
+                    } else {
+                        parser.skipChildren();
                     }
+                }
+
+                try {
+                    Segment firstSegment = segments.get(0);
+                    Segment lastSegment = segments.get(segments.size() - 1);
+                    LocalDateTime departure = LocalDateTime.parse(firstSegment.departureAt(), DateTimeFormatter.ISO_DATE_TIME);
+                    LocalDateTime arrival = LocalDateTime.parse(lastSegment.arrivalAt(), DateTimeFormatter.ISO_DATE_TIME);
+                    BigDecimal price = new BigDecimal(grandTotal);
+                    String airline = firstSegment.operatingCarrierCode() != null
+                        ? firstSegment.operatingCarrierCode()
+                        : firstSegment.carrierCode();
+
+                    FlightDTO flight = new FlightDTO(
+                        flightId++,
+                        departure,
+                        arrival,
+                        price,
+                        100 + (int)(Math.random() * 50), // Mock available seats
+                        1L, // destination ID
+                        airline,
+                        firstSegment.number(),
+                        "https://images.unsplash.com/photo-1542296332-2e4473faf563?w=800"
+                    );
+                    flight.setSegments(segments.stream()
+                        .map(segment -> new FlightSegmentDTO(segment.from(), segment.to(), segment.departureAt(),
+                            segment.arrivalAt(), segment.carrierCode(), segment.number()))
+                        .toList());
+                    flight.setDuration(duration);
+                    flights.add(flight);
                 } catch (Exception e) {
-                    log.warn("Error parsing flight offer", e);
+                    log.warn("Error parsing flight offer: {}", e.getMessage());
                 }
             }
         }
@@ -374,75 +699,83 @@ public class AmadeusClientService {
     }
 
     /**
-     * Parse hotel reference data response from Amadeus
-     * Handles the response from /v1/reference-data/locations/hotels/by-city endpoint
+     * Read one itinerary segment: departure / arrival {iataCode, at}, carrierCode, number, operating.carrierCode
      */
-    private List<HotelDTO> parseHotelOffers(String response, String cityCode) throws Exception {
-        List<HotelDTO> hotels = new ArrayList<>();
-        JsonNode jsonNode = objectMapper.readTree(response);
-        JsonNode data = jsonNode.get("data");
+    private Segment readSegment(JsonParser parser) throws IOException {
+        String[] departure = {null, null};
+        String[] arrival = {null, null};
+        String carrierCode = null;
+        String number = null;
+        String operatingCarrierCode = null;
+
+        String field;
+        while ((field = JsonStreams.nextField(parser)) != null) {
+            switch (field) {
+                case "departure" -> departure = readEndpoint(parser);
+                case "arrival" -> arrival = readEndpoint(parser);
+                case "carrierCode" -> carrierCode = JsonStreams.readText(parser);
+                case "number" -> number = JsonStreams.readText(parser);
+                case "operating" -> operatingCarrierCode = JsonStreams.readTextField(parser, "carrierCode");
+                default -> parser.skipChildren();
+            }
+        }
+        return new Segment(departure[0], arrival[0], departure[1], arrival[1], carrierCode, number, operatingCarrierCode);
+    }
 
-        if (data != null && data.isArray()) {
-            long hotelId = 1;
-            for (JsonNode hotelNode : data) {
-                try {
-                    // Extract hotel information from reference data format
-                    String hotelCode = hotelNode.has("hotelCode") ? hotelNode.get("hotelCode").asText() : "HOTEL-" + hotelId;
-                    String name = hotelNode.has("name") ? hotelNode.get("name").asText() : "Hotel " + hotelId;
-                    
-                    // Get address info
-                    String address = "City Center, " + getCityName(cityCode);
-                    if (hotelNode.has("address")) {
-                        JsonNode addr = hotelNode.get("address");
-                        if (addr.has("lines") && addr.get("lines").size() > 0) {
-                            address = addr.get("lines").get(0).asText();
-                        }
-                    }
-                    
-                    // Generate realistic pricing based on hotel star rating
-                    int rating = hotelNode.has("rating") ? hotelNode.get("rating").asInt() : (3 + (int)(hotelId % 3));
-                    BigDecimal price = new BigDecimal(80 + (rating * 30)); // $80-$170 per night
-                    
-                    HotelDTO hotel = new HotelDTO(
-                        hotelId++,
-                        name,
-                        price,
-                        20 + (int)(Math.random() * 80), // Available rooms
-                        1L, // destination ID
-                        address,
-                        rating,
-                        "https://images.unsplash.com/photo-1566073771259-6a8506099945?w=800",
-                        "Premium hotel with world-class amenities, exceptional service, and comfortable accommodations"
-                    );
-                    hotels.add(hotel);
-                } catch (Exception e) {
-                    log.warn("Error parsing hotel data: {}", e.getMessage());
-                }
+    /**
+     * Read {iataCode, at} of a segment departure / arrival object
+     */
+    private String[] readEndpoint(JsonParser parser) throws IOException {
+        String[] endpoint = {null, null};
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return endpoint;
+        }
+        String field;
+        while ((field = JsonStreams.nextField(parser)) != null) {
+            switch (field) {
+                case "iataCode" -> endpoint[0] = JsonStreams.readText(parser);
+                case "at" -> endpoint[1] = JsonStreams.readText(parser);
+                default -> parser.skipChildren();
             }
         }
+        return endpoint;
+    }
 
-        log.info("Parsed {} hotels for city code {}", hotels.size(), cityCode);
-        return hotels;
+    /**
+     * Read price.{field} from an offer object, skipping the rest of the offer
+     */
+    private String readPriceField(JsonParser parser, String priceField) throws IOException {
+        String value = null;
+        String field;
+        while ((field = JsonStreams.nextField(parser)) != null) {
+            if ("price".equals(field)) {
+                value = JsonStreams.readTextField(parser, priceField);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return value;
     }
 
     /**
-     * Convert city code to city name for display purposes
+     * Read address.lines[0], skipping the rest of the address
      */
-    private String getCityName(String code) {
-        return switch(code.toUpperCase()) {
-            case "PAR" -> "Paris";
-            case "LON" -> "London";
-            case "NYC" -> "New York";
-            case "TYO" -> "Tokyo";
-            case "DXB" -> "Dubai";
-            case "BCN" -> "Barcelona";
-            case "ROM" -> "Rome";
-            case "BKK" -> "Bangkok";
-            case "SYD" -> "Sydney";
-            case "CDG" -> "Paris";
-            case "LHR" -> "London";
-            default -> code;
-        };
+    private String readAddressLine(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        String line = null;
+        String field;
+        while ((field = JsonStreams.nextField(parser)) != null) {
+            if ("lines".equals(field)) {
+                line = JsonStreams.readFirstText(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return line;
     }
 
     /**
@@ -459,4 +792,7 @@ public class AmadeusClientService {
         headers.setContentType(MediaType.APPLICATION_JSON);
         return headers;
     }
+
+    private record Segment(String from, String to, String departureAt, String arrivalAt, String carrierCode,
+                           String number, String operatingCarrierCode) {}
 }
@@ -1,13 +1,8 @@
 package com.voyageconnect.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.voyageconnect.dto.FlightDTO;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -18,24 +13,6 @@ import java.util.*;
 @Slf4j
 public class AmadeusFlightService {
 
-    private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper;
-
-    @Value("${amadeus.api.key:test_key}")
-    private String apiKey;
-
-    @Value("${amadeus.api.secret:test_secret}")
-    private String apiSecret;
-
-    private static final String AMADEUS_BASE_URL = "https://api.amadeus.com/v2";
-    private String accessToken = null;
-    private long tokenExpiry = 0;
-
-    public AmadeusFlightService(RestTemplate restTemplate, ObjectMapper objectMapper) {
-        this.restTemplate = restTemplate;
-        this.objectMapper = objectMapper;
-    }
-
     public List<FlightDTO> searchFlights(String origin, String destination, String departureDate) {
         try {
             // For demo: generate mock flights based on search parameters
@@ -91,30 +68,4 @@ public class AmadeusFlightService {
         
         return flights;
     }
-
-    private String getAccessToken() throws Exception {
-        if (accessToken != null && System.currentTimeMillis() < tokenExpiry) {
-            return accessToken;
-        }
-
-        String tokenUrl = AMADEUS_BASE_URL + "/security/oauth2/token";
-        
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
-        
-        String body = "grant_type=client_credentials&client_id=" + apiKey + "&client_secret=" + apiSecret;
-        HttpEntity<String> entity = new HttpEntity<>(body, headers);
-        
-        try {
-            ResponseEntity<String> response = restTemplate.postForEntity(tokenUrl, entity, String.class);
-            JsonNode node = objectMapper.readTree(response.getBody());
-            accessToken = node.get("access_token").asText();
-            long expiresIn = node.get("expires_in").asLong();
-            tokenExpiry = System.currentTimeMillis() + (expiresIn * 1000) - 10000; // Refresh 10s before expiry
-            return accessToken;
-        } catch (Exception e) {
-            log.warn("Failed to get Amadeus token, using demo mode", e);
-            return "demo_token";
-        }
-    }
 }
@@ -1,26 +1,40 @@
 package com.voyageconnect.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.voyageconnect.cache.HttpCaching;
+import com.voyageconnect.cache.StaleWhileRevalidateCache;
+import com.voyageconnect.client.JsonStreams;
+import com.voyageconnect.client.ReactiveBodies;
+import com.voyageconnect.client.RequestCoalescer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
 
 /**
  * Service for Amadeus Hotel Search API integration
  * Used specifically for Moroccan hotels (CMN, RAK, RBA, FES, TNG, AGA, etc.)
  * Returns REAL Amadeus hotel data - NO mock data
+ * The transformed lists are cached per city (stale-while-revalidate) with their ETag; the estimated
+ * fields (price, review score, photo) are derived from the hotel ID, so a hotel always gets the same values
  */
 @Service
 @Slf4j
@@ -29,80 +43,51 @@ public class AmadeusHotelService {
     private final RestTemplate restTemplate;
     private final AmadeusAuthService amadeusAuthService;
     private final ObjectMapper objectMapper;
+    private final RequestCoalescer requestCoalescer;
+    private final WebClient providerWebClient;
+    private final ReferenceDataRegistry referenceData;
+    private final StaleWhileRevalidateCache<String, HttpCaching.JsonBody> hotelCache;
+
+    private static final String PROVIDER = "amadeus";
+    private static final int MAX_HOTELS = 20; // Limit to 20 hotels
+    private static final HttpCaching.JsonBody EMPTY_BODY =
+        HttpCaching.JsonBody.of("{\"result\":[],\"count\":0,\"total_count_with_filters\":0}");
     
     @Value("${amadeus.api.base-url:https://test.api.amadeus.com}")
     private String amadeusBaseUrl;
 
-    // Moroccan IATA codes to city names
-    private static final Map<String, String> MOROCCAN_CITIES = new HashMap<>();
-    
-    static {
-        MOROCCAN_CITIES.put("CMN", "CASABLANCA");
-        MOROCCAN_CITIES.put("RAK", "MARRAKECH");
-        MOROCCAN_CITIES.put("RBA", "RABAT");
-        MOROCCAN_CITIES.put("FEZ", "FES");
-        MOROCCAN_CITIES.put("TNG", "TANGIER");
-        MOROCCAN_CITIES.put("AGA", "AGADIR");
-        MOROCCAN_CITIES.put("OUD", "OUARZAZATE");
-        MOROCCAN_CITIES.put("ESU", "ESSAOUIRA");
-    }
-
     public AmadeusHotelService(RestTemplate restTemplate, 
                               AmadeusAuthService amadeusAuthService,
-                              ObjectMapper objectMapper) {
+                              ObjectMapper objectMapper,
+                              RequestCoalescer requestCoalescer,
+                              WebClient providerWebClient,
+                              ReferenceDataRegistry referenceData,
+                              StaleWhileRevalidateCache<String, HttpCaching.JsonBody> amadeusHotelCache) {
         this.restTemplate = restTemplate;
         this.amadeusAuthService = amadeusAuthService;
         this.objectMapper = objectMapper;
+        this.requestCoalescer = requestCoalescer;
+        this.providerWebClient = providerWebClient;
+        this.referenceData = referenceData;
+        this.hotelCache = amadeusHotelCache;
     }
 
     /**
-     * Check if a city code is Moroccan
+     * Check if a city code is Moroccan, i.e. covered by the Amadeus hotel search (amadeusHotels in the reference data)
      */
     public boolean isMoroccanCity(String cityCode) {
-        return MOROCCAN_CITIES.containsKey(cityCode.toUpperCase());
+        ReferenceData.City city = referenceData.get().byCode(cityCode);
+        return city != null && city.amadeusHotels();
     }
 
     /**
      * Search hotels in Morocco using Amadeus Hotel Search API
      * @param cityCode IATA code (CMN, RAK, etc.)
-     * @return JSON response from Amadeus API
+     * @return JSON response from Amadeus API, an empty result when the search failed
      */
     public String searchHotels(String cityCode) {
         try {
-            String normalizedCode = cityCode.toUpperCase().trim();
-            
-            if (!isMoroccanCity(normalizedCode)) {
-                log.warn("✗ {} is not a Moroccan city", cityCode);
-                return buildEmptyResponse();
-            }
-
-            String cityName = MOROCCAN_CITIES.get(normalizedCode);
-            log.info("✓ Searching Amadeus hotels for: {} ({})", cityName, normalizedCode);
-
-            // Get authentication token
-            String accessToken = amadeusAuthService.getAccessToken();
-            
-            // Build API URL
-            String url = buildHotelSearchUrl(normalizedCode);
-            log.debug("✓ Amadeus Hotel API URL: {}", url);
-            
-            // Create headers with bearer token
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", "Bearer " + accessToken);
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            
-            // Call Amadeus API
-            ResponseEntity<String> response = restTemplate.exchange(
-                url, HttpMethod.GET, entity, String.class);
-            
-            String responseBody = response.getBody();
-            log.info("✓ Amadeus responded: {} - {} chars", 
-                response.getStatusCode(), 
-                responseBody != null ? responseBody.length() : 0);
-            
-            // Transform Amadeus response to match Booking.com format for frontend compatibility
-            return transformAmadeusResponse(responseBody, cityName);
-            
+            return searchHotelsBody(cityCode).json();
         } catch (Exception e) {
             log.error("✗ Amadeus hotel search failed for {}: {} - {}", 
                 cityCode, e.getClass().getSimpleName(), e.getMessage());
@@ -110,6 +95,74 @@ public class AmadeusHotelService {
         }
     }
 
+    /**
+     * Cached hotel list of a city with its ETag; identical concurrent misses share one Amadeus call
+     * @throws Exception when Amadeus could not be queried and nothing is cached (failures are not cached)
+     */
+    public HttpCaching.JsonBody searchHotelsBody(String cityCode) throws Exception {
+        String normalizedCode = cityCode.toUpperCase().trim();
+        if (!isMoroccanCity(normalizedCode)) {
+            log.warn("✗ {} is not a Moroccan city", normalizedCode);
+            return EMPTY_BODY;
+        }
+        return hotelCache.get(normalizedCode, () -> HttpCaching.JsonBody.of(
+            requestCoalescer.execute(PROVIDER, "hotels-by-city:" + normalizedCode, () -> fetchHotels(normalizedCode))));
+    }
+
+    /**
+     * Non-blocking variant of searchHotels (WebClient); the same Booking.com-shaped JSON, empty on error
+     */
+    public Mono<String> searchHotelsReactive(String cityCode) {
+        String normalizedCode = cityCode.toUpperCase().trim();
+        if (!isMoroccanCity(normalizedCode)) {
+            return Mono.just(buildEmptyResponse());
+        }
+        String cityName = cityName(normalizedCode);
+        return amadeusAuthService.accessToken()
+            .flatMap(accessToken -> ReactiveBodies.parse(
+                providerWebClient.get()
+                    .uri(buildHotelSearchUrl(normalizedCode))
+                    .headers(headers -> headers.setBearerAuth(accessToken))
+                    .retrieve()
+                    .bodyToFlux(DataBuffer.class),
+                body -> transformAmadeusResponse(body, cityName)))
+            .defaultIfEmpty(buildEmptyResponse())
+            .onErrorResume(e -> {
+                log.error("✗ Amadeus hotel search failed for {} (reactive): {} - {}",
+                    normalizedCode, e.getClass().getSimpleName(), e.getMessage());
+                return Mono.just(buildEmptyResponse());
+            });
+    }
+
+    private String fetchHotels(String normalizedCode) throws Exception {
+        String cityName = cityName(normalizedCode);
+        log.info("✓ Searching Amadeus hotels for: {} ({})", cityName, normalizedCode);
+
+        // Get authentication token
+        String accessToken = amadeusAuthService.getAccessToken();
+        
+        // Build API URL
+        String url = buildHotelSearchUrl(normalizedCode);
+        log.debug("✓ Amadeus Hotel API URL: {}", url);
+        
+        // Create headers with bearer token
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + accessToken);
+        
+        // Call Amadeus API and transform the streamed response to Booking.com format
+        // for frontend compatibility
+        String hotelsJson = restTemplate.execute(url, HttpMethod.GET,
+            request -> request.getHeaders().addAll(headers),
+            response -> {
+                log.info("✓ Amadeus responded: {}", response.getStatusCode());
+                return transformAmadeusResponse(response.getBody(), cityName);
+            });
+        if (hotelsJson == null) {
+            throw new IllegalStateException("Empty Amadeus hotel response for " + normalizedCode);
+        }
+        return hotelsJson;
+    }
+
     /**
      * Build Amadeus Hotel Search API URL
      * Endpoint: GET /v1/reference-data/locations/hotels/by-city
@@ -125,16 +178,24 @@ public class AmadeusHotelService {
             .toUriString();
     }
 
+    /**
+     * Upper-case city name used in the transformed response ("MARRAKECH")
+     */
+    private String cityName(String cityCode) {
+        ReferenceData.City city = referenceData.get().byCode(cityCode);
+        return city != null ? city.name().toUpperCase(Locale.ROOT) : cityCode;
+    }
+
     /**
      * Transform Amadeus hotel response to match Booking.com format
      * This ensures frontend compatibility without changes
+     * The response is stream-parsed: only hotelId, name, geoCode and address.countryCode are read,
+     * and parsing stops after MAX_HOTELS hotels
+     * @throws IOException when the response is not valid JSON (not cached as "no hotels")
      */
-    private String transformAmadeusResponse(String amadeusJson, String cityName) {
-        try {
-            JsonNode amadeusRoot = objectMapper.readTree(amadeusJson);
-            JsonNode dataArray = amadeusRoot.get("data");
-            
-            if (dataArray == null || !dataArray.isArray() || dataArray.size() == 0) {
+    private String transformAmadeusResponse(InputStream amadeusJson, String cityName) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(amadeusJson)) {
+            if (!JsonStreams.moveToRootArray(parser, "data")) {
                 log.warn("✗ No hotels found in Amadeus response");
                 return buildEmptyResponse();
             }
@@ -142,43 +203,69 @@ public class AmadeusHotelService {
             List<Map<String, Object>> hotels = new ArrayList<>();
             
             // Transform each Amadeus hotel to Booking.com format
-            for (JsonNode hotelNode : dataArray) {
-                Map<String, Object> hotel = new HashMap<>();
-                
+            while (hotels.size() < MAX_HOTELS && JsonStreams.nextObjectElement(parser)) {
                 // Extract Amadeus fields
-                String hotelId = hotelNode.path("hotelId").asText();
-                String name = hotelNode.path("name").asText();
-                
-                // Get location
-                JsonNode geoCode = hotelNode.path("geoCode");
-                double latitude = geoCode.path("latitude").asDouble(0);
-                double longitude = geoCode.path("longitude").asDouble(0);
-                
-                JsonNode address = hotelNode.path("address");
-                String countryCode = address.path("countryCode").asText("MA");
+                String hotelId = "";
+                String name = "";
+                double latitude = 0;
+                double longitude = 0;
+                String countryCode = null;
+
+                String field;
+                while ((field = JsonStreams.nextField(parser)) != null) {
+                    switch (field) {
+                        case "hotelId" -> hotelId = Objects.toString(JsonStreams.readText(parser), "");
+                        case "name" -> name = Objects.toString(JsonStreams.readText(parser), "");
+                        case "address" -> countryCode = JsonStreams.readTextField(parser, "countryCode");
+                        case "geoCode" -> {
+                            // Get location
+                            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                                parser.skipChildren();
+                                break;
+                            }
+                            String geoField;
+                            while ((geoField = JsonStreams.nextField(parser)) != null) {
+                                switch (geoField) {
+                                    case "latitude" -> latitude = parser.getValueAsDouble(0);
+                                    case "longitude" -> longitude = parser.getValueAsDouble(0);
+                                    default -> parser.skipChildren();
+                                }
+                            }
+                        }
+                        default -> parser.skipChildren();
+                    }
+                }
+
+                Map<String, Object> hotel = new HashMap<>();
+                // Estimates are seeded by the hotel: the same hotel always gets the same values
+                Random estimates = new Random(hotelId.hashCode());
                 
                 // Map to Booking.com format (frontend expects this structure)
                 hotel.put("hotel_id", hotelId.hashCode()); 
                 hotel.put("hotel_name", name);
                 hotel.put("hotel_name_trans", name);
-                hotel.put("min_total_price", estimatePrice(name)); 
+                hotel.put("min_total_price", estimatePrice(name, estimates)); 
                 hotel.put("address", String.format("%s, Morocco", cityName));
                 hotel.put("address_trans", String.format("%s, Morocco", cityName));
                 hotel.put("city", cityName);
                 hotel.put("city_trans", cityName);
-                hotel.put("review_score", 8.0 + (Math.random() * 1.5)); 
+                hotel.put("review_score", Math.round((8.0 + estimates.nextDouble() * 1.5) * 10) / 10.0); 
                 hotel.put("class", inferStarRating(name)); 
                 hotel.put("latitude", latitude);
                 hotel.put("longitude", longitude);
-                hotel.put("main_photo_url", generatePhotoUrl());
-                hotel.put("max_photo_url", generatePhotoUrl());
+                String photoUrl = generatePhotoUrl(estimates);
+                hotel.put("main_photo_url", photoUrl);
+                hotel.put("max_photo_url", photoUrl);
                 hotel.put("country_trans", "Morocco");
-                hotel.put("countrycode", countryCode);
+                hotel.put("countrycode", countryCode != null ? countryCode : "MA");
                 hotel.put("provider", "AMADEUS"); // Mark provider for booking
                 
                 hotels.add(hotel);
-                
-                if (hotels.size() >= 20) break; // Limit to 20 hotels
+            }
+
+            if (hotels.isEmpty()) {
+                log.warn("✗ No hotels found in Amadeus response");
+                return buildEmptyResponse();
             }
 
             // Build response in Booking.com format
@@ -186,16 +273,12 @@ public class AmadeusHotelService {
             response.put("result", hotels);
             response.put("count", hotels.size());
             response.put("total_count_with_filters", hotels.size());
-            response.put("search_id", "amadeus_" + System.currentTimeMillis());
+            response.put("search_id", "amadeus_" + cityName.toLowerCase(Locale.ROOT));
             
             String jsonResponse = objectMapper.writeValueAsString(response);
             log.info("✓ Transformed {} Amadeus hotels to Booking.com format", hotels.size());
             
             return jsonResponse;
-            
-        } catch (Exception e) {
-            log.error("✗ Failed to transform Amadeus response: {}", e.getMessage());
-            return buildEmptyResponse();
         }
     }
 
@@ -218,13 +301,13 @@ public class AmadeusHotelService {
     /**
      * Estimate reasonable price based on hotel name
      */
-    private double estimatePrice(String name) {
+    private double estimatePrice(String name, Random estimates) {
         int stars = inferStarRating(name);
         double basePrice = switch (stars) {
-            case 5 -> 180 + (Math.random() * 120); // 180-300 EUR
-            case 4 -> 100 + (Math.random() * 80);  // 100-180 EUR
-            case 3 -> 60 + (Math.random() * 40);   // 60-100 EUR
-            default -> 80 + (Math.random() * 50);  // 80-130 EUR
+            case 5 -> 180 + (estimates.nextDouble() * 120); // 180-300 EUR
+            case 4 -> 100 + (estimates.nextDouble() * 80);  // 100-180 EUR
+            case 3 -> 60 + (estimates.nextDouble() * 40);   // 60-100 EUR
+            default -> 80 + (estimates.nextDouble() * 50);  // 80-130 EUR
         };
         return Math.round(basePrice * 100.0) / 100.0;
     }
@@ -232,8 +315,8 @@ public class AmadeusHotelService {
     /**
      * Generate placeholder photo URL (Unsplash hotel images)
      */
-    private String generatePhotoUrl() {
-        int imageId = (int)(Math.random() * 100);
+    private String generatePhotoUrl(Random estimates) {
+        int imageId = estimates.nextInt(100);
         return String.format("https://images.unsplash.com/photo-%d?w=400&h=300&fit=crop", 
             1560000000 + imageId);
     }
@@ -1,23 +1,33 @@
 package com.voyageconnect.service;
 
+import com.voyageconnect.client.ReactiveBodies;
+import com.voyageconnect.client.RequestCoalescer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Service for Booking.com API integration via RapidAPI (apidojo-booking-v1)
  * Strategy:
  * - Moroccan cities: Use map-based search with bounding boxes (properties/list-by-map)
  * - Other cities: Use destination-ID search (properties/list)
+ * City codes, destination IDs and bounding boxes come from the reference data (ReferenceDataRegistry)
  * Returns REAL Booking.com data ONLY - NO mock/fallback data
  */
 @Service
@@ -25,6 +35,13 @@ import java.util.Map;
 public class BookingApiService {
 
     private final RestTemplate restTemplate;
+    private final RequestCoalescer requestCoalescer;
+    private final ClientHttpRequestFactory passThroughRequestFactory;
+    private final WebClient providerWebClient;
+    private final ReferenceDataRegistry referenceData;
+
+    private static final String PROVIDER = "booking";
+    private static final String EMPTY_RESULT = "{\"result\":[],\"count\":0,\"total_count_with_filters\":0}";
     
     @Value("${rapidapi.booking.key}")
     private String rapidApiKey;
@@ -35,80 +52,14 @@ public class BookingApiService {
     @Value("${rapidapi.booking.base-url}")
     private String baseUrl;
 
-    // IATA code to city name mapping
-    private static final Map<String, String> IATA_TO_CITY = new HashMap<>();
-    
-    // Booking.com destination IDs for major cities
-    private static final Map<String, String> CITY_DEST_ID_MAP = new HashMap<>();
-    
-    // Bounding boxes for Moroccan cities (map-based search)
-    // RapidAPI free tier: dest_id search unreliable for Morocco
-    // Official Booking.com strategy: bbox coordinates
-    // Format: {ne_lat, ne_lon, sw_lat, sw_lon}
-    private static final Map<String, double[]> MOROCCAN_BOUNDING_BOXES = new HashMap<>();
-    
-    static {
-        // IATA code mappings
-        IATA_TO_CITY.put("PAR", "PARIS");
-        IATA_TO_CITY.put("CDG", "PARIS");
-        IATA_TO_CITY.put("ORY", "PARIS");
-        IATA_TO_CITY.put("LON", "LONDON");
-        IATA_TO_CITY.put("LHR", "LONDON");
-        IATA_TO_CITY.put("LGW", "LONDON");
-        IATA_TO_CITY.put("BCN", "BARCELONA");
-        IATA_TO_CITY.put("DXB", "DUBAI");
-        IATA_TO_CITY.put("NYC", "NEW YORK");
-        IATA_TO_CITY.put("JFK", "NEW YORK");
-        IATA_TO_CITY.put("EWR", "NEW YORK");
-        IATA_TO_CITY.put("LGA", "NEW YORK");
-        IATA_TO_CITY.put("TYO", "TOKYO");
-        IATA_TO_CITY.put("NRT", "TOKYO");
-        IATA_TO_CITY.put("HND", "TOKYO");
-        IATA_TO_CITY.put("ROM", "ROME");
-        IATA_TO_CITY.put("FCO", "ROME");
-        IATA_TO_CITY.put("MAD", "MADRID");
-        IATA_TO_CITY.put("AMS", "AMSTERDAM");
-        IATA_TO_CITY.put("BER", "BERLIN");
-        
-        // Moroccan cities - IATA codes
-        IATA_TO_CITY.put("CMN", "CASABLANCA");  // Casablanca Mohamed V
-        IATA_TO_CITY.put("RAK", "MARRAKECH");   // Marrakech Menara
-        IATA_TO_CITY.put("RBA", "RABAT");       // Rabat-Salé
-        IATA_TO_CITY.put("FEZ", "FES");         // Fes-Saïss
-        IATA_TO_CITY.put("TNG", "TANGIER");     // Tangier Ibn Battouta
-        IATA_TO_CITY.put("AGA", "AGADIR");      // Agadir Al Massira
-        IATA_TO_CITY.put("OUD", "OUARZAZATE"); // Ouarzazate
-        IATA_TO_CITY.put("ESU", "ESSAOUIRA");  // Essaouira
-        
-        // Booking.com destination IDs
-        CITY_DEST_ID_MAP.put("PARIS", "-1456928");
-        CITY_DEST_ID_MAP.put("LONDON", "-2601889");
-        CITY_DEST_ID_MAP.put("BARCELONA", "-372490");
-        CITY_DEST_ID_MAP.put("DUBAI", "-782831");
-        CITY_DEST_ID_MAP.put("NEW YORK", "20088325");
-        CITY_DEST_ID_MAP.put("TOKYO", "-246227");
-        CITY_DEST_ID_MAP.put("ROME", "-126693");
-        CITY_DEST_ID_MAP.put("MADRID", "-390625");
-        CITY_DEST_ID_MAP.put("AMSTERDAM", "-2140479");
-        CITY_DEST_ID_MAP.put("BERLIN", "-1746443");
-        
-        // Moroccan cities: Use map-based search with bounding boxes
-        MOROCCAN_BOUNDING_BOXES.put("CASABLANCA", new double[]{33.65, -7.45, 33.50, -7.80});
-        MOROCCAN_BOUNDING_BOXES.put("MARRAKECH", new double[]{31.75, -7.90, 31.55, -8.05});
-        MOROCCAN_BOUNDING_BOXES.put("MARRAKESH", new double[]{31.75, -7.90, 31.55, -8.05});
-        MOROCCAN_BOUNDING_BOXES.put("RABAT", new double[]{34.10, -6.75, 34.00, -6.90});
-        MOROCCAN_BOUNDING_BOXES.put("FES", new double[]{34.10, -4.95, 33.95, -5.10});
-        MOROCCAN_BOUNDING_BOXES.put("FEZ", new double[]{34.10, -4.95, 33.95, -5.10});
-        MOROCCAN_BOUNDING_BOXES.put("TANGIER", new double[]{35.85, -5.70, 35.70, -5.95});
-        MOROCCAN_BOUNDING_BOXES.put("AGADIR", new double[]{30.50, -9.45, 30.35, -9.65});
-        MOROCCAN_BOUNDING_BOXES.put("OUARZAZATE", new double[]{31.00, -6.85, 30.85, -7.00});
-        MOROCCAN_BOUNDING_BOXES.put("ESSAOUIRA", new double[]{31.55, -9.70, 31.45, -9.85});
-        MOROCCAN_BOUNDING_BOXES.put("CHEFCHAOUEN", new double[]{35.25, -5.20, 35.15, -5.35});
-        MOROCCAN_BOUNDING_BOXES.put("MEKNES", new double[]{33.95, -5.50, 33.85, -5.65});
-    }
-
-    public BookingApiService(RestTemplate restTemplate) {
+    public BookingApiService(RestTemplate restTemplate, RequestCoalescer requestCoalescer,
+                             @Qualifier("passThroughRequestFactory") ClientHttpRequestFactory passThroughRequestFactory,
+                             WebClient providerWebClient, ReferenceDataRegistry referenceData) {
         this.restTemplate = restTemplate;
+        this.requestCoalescer = requestCoalescer;
+        this.passThroughRequestFactory = passThroughRequestFactory;
+        this.providerWebClient = providerWebClient;
+        this.referenceData = referenceData;
     }
 
     /**
@@ -120,95 +71,120 @@ public class BookingApiService {
      */
     public String getHotelsByCity(String cityInput) {
         try {
-            // Convert IATA code to city name if needed
-            String cityName = cityInput.toUpperCase().trim();
-            if (IATA_TO_CITY.containsKey(cityName)) {
-                cityName = IATA_TO_CITY.get(cityName);
-                log.info("✓ Converted IATA code '{}' to city '{}'", cityInput, cityName);
-            } else {
-                log.info("✓ Searching hotels for: '{}'", cityInput);
-            }
-            
-            // Moroccan cities: Use map-based search
-            if (MOROCCAN_BOUNDING_BOXES.containsKey(cityName)) {
-                log.info("✓ Using map-based search for Moroccan city: {}", cityName);
-                return getHotelsByMapSearch(cityName);
-            }
-            
-            // Other cities: Use standard destination-ID search
-            String destId = getDestinationId(cityName);
-            if (destId == null) {
-                log.warn("✗ No destination ID found for city: {}", cityInput);
-                return "{\"result\":[],\"count\":0,\"total_count_with_filters\":0}";
-            }
-
-            String url = buildUrlWithDestId(destId);
-            log.info("✓ Calling Booking API with dest_id: {}", destId);
-            
-            HttpHeaders headers = createHeaders();
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            
-            ResponseEntity<String> response = restTemplate.exchange(
-                url, HttpMethod.GET, entity, String.class);
-            
-            log.info("✓ Booking API responded: {}", response.getStatusCode());
-            
-            String responseBody = response.getBody() != null ? response.getBody() : "{\"result\":[],\"count\":0}";
-            log.debug("✓ Response preview: {}", responseBody.substring(0, Math.min(500, responseBody.length())));
-            
-            return responseBody;
-            
+            return searchHotelsByCity(cityInput);
         } catch (Exception e) {
             log.error("✗ Error fetching hotels: {} - {}", e.getClass().getSimpleName(), e.getMessage());
-            return "{\"result\":[],\"count\":0,\"total_count_with_filters\":0}";
+            return EMPTY_RESULT;
         }
     }
-    
+
     /**
-     * Get hotels for Moroccan cities using map-based search
-     * Uses properties/list-by-map endpoint with real bounding box coordinates
-     * Returns REAL Booking.com data - production-safe, free-tier compatible
+     * Same search, failing instead of answering an empty result when Booking.com could not be queried,
+     * for callers that must not cache or report a failed search as "no hotels"
+     * @throws Exception on transport errors and error responses (an unknown city is an empty result)
      */
-    private String getHotelsByMapSearch(String cityName) {
-        try {
-            double[] bbox = MOROCCAN_BOUNDING_BOXES.get(cityName);
-            if (bbox == null) {
-                log.error("✗ No bounding box for: {}", cityName);
-                return "{\"result\":[],\"count\":0}";
-            }
-            
-            String url = buildUrlWithBbox(bbox);
-            log.info("✓ Map search bbox=[{},{},{},{}]", bbox[0], bbox[1], bbox[2], bbox[3]);
-            
-            HttpHeaders headers = createHeaders();
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            
-            ResponseEntity<String> response = restTemplate.exchange(
-                url, HttpMethod.GET, entity, String.class);
-            
-            log.info("✓ Map search responded: {}", response.getStatusCode());
-            
-            return response.getBody() != null ? response.getBody() : "{\"result\":[],\"count\":0}";
-            
-        } catch (Exception e) {
-            log.error("✗ Map search failed for {}: {}", cityName, e.getMessage());
-            return "{\"result\":[],\"count\":0}";
+    public String searchHotelsByCity(String cityInput) throws Exception {
+        // Identical concurrent searches for the same city share one RapidAPI call
+        return requestCoalescer.execute(PROVIDER, "hotels:" + cityInput.toUpperCase().trim(),
+            () -> fetchHotelsByCity(cityInput));
+    }
+
+    /**
+     * Open the Booking.com hotel search response for streamed pass-through
+     * The body is not read here: the caller copies it to the client and must close the response.
+     * Pass-through calls are not coalesced, since a response body can only be consumed once
+     * @param acceptGzip whether the caller can forward a gzip-encoded body unchanged
+     * @return the upstream response, or null when the city cannot be resolved
+     */
+    public ClientHttpResponse openHotelsByCity(String cityInput, boolean acceptGzip) throws IOException {
+        String url = resolveSearchUrl(cityInput);
+        if (url == null) {
+            return null;
+        }
+        ClientHttpRequest request = passThroughRequestFactory.createRequest(
+            restTemplate.getUriTemplateHandler().expand(url), HttpMethod.GET);
+        request.getHeaders().addAll(createHeaders());
+        if (acceptGzip) {
+            request.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, "gzip");
         }
+        ClientHttpResponse response = request.execute();
+        log.info("✓ Booking API responded: {} (pass-through, encoding={})",
+            response.getStatusCode(), response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        return response;
     }
 
-    private String getDestinationId(String cityName) {
-        String normalized = cityName.toUpperCase().trim();
-        if (CITY_DEST_ID_MAP.containsKey(normalized)) {
-            return CITY_DEST_ID_MAP.get(normalized);
+    /**
+     * Non-blocking variant of getHotelsByCity (WebClient); the raw Booking.com JSON, empty result on error
+     */
+    public Mono<String> getHotelsByCityReactive(String cityInput) {
+        String url = resolveSearchUrl(cityInput);
+        if (url == null) {
+            return Mono.just(EMPTY_RESULT);
+        }
+        return ReactiveBodies.parse(
+                providerWebClient.get()
+                    .uri(url)
+                    .headers(headers -> headers.addAll(createHeaders()))
+                    .retrieve()
+                    .bodyToFlux(DataBuffer.class),
+                body -> new String(body.readAllBytes(), StandardCharsets.UTF_8))
+            .defaultIfEmpty(EMPTY_RESULT)
+            .onErrorResume(e -> {
+                log.error("✗ Error fetching hotels (reactive): {} - {}", e.getClass().getSimpleName(), e.getMessage());
+                return Mono.just(EMPTY_RESULT);
+            });
+    }
+
+    private String fetchHotelsByCity(String cityInput) {
+        String url = resolveSearchUrl(cityInput);
+        if (url == null) {
+            return EMPTY_RESULT;
+        }
+
+        HttpHeaders headers = createHeaders();
+        HttpEntity<String> entity = new HttpEntity<>(headers);
+        
+        ResponseEntity<String> response = restTemplate.exchange(
+            url, HttpMethod.GET, entity, String.class);
+        
+        log.info("✓ Booking API responded: {}", response.getStatusCode());
+        
+        String responseBody = response.getBody();
+        if (responseBody == null || responseBody.isBlank()) {
+            throw new IllegalStateException("Empty Booking.com response for " + cityInput);
         }
-        // Try partial match
-        for (Map.Entry<String, String> entry : CITY_DEST_ID_MAP.entrySet()) {
-            if (entry.getKey().contains(normalized) || normalized.contains(entry.getKey())) {
-                log.info("✓ Matched '{}' to '{}'", cityName, entry.getKey());
-                return entry.getValue();
-            }
+        log.debug("✓ Response preview: {}", responseBody.substring(0, Math.min(500, responseBody.length())));
+        
+        return responseBody;
+    }
+
+    /**
+     * Booking.com search URL for a city name, alias or IATA code (resolved through the reference data)
+     * - Cities with a bounding box (Moroccan cities): map-based search (properties/list-by-map)
+     * - Other cities: destination-ID search
+     * @return null when the city is unknown or has neither a bounding box nor a destination ID
+     */
+    private String resolveSearchUrl(String cityInput) {
+        ReferenceData.City city = referenceData.lookup(cityInput);
+        if (city == null) {
+            log.warn("✗ Unknown city for Booking.com search: {}", cityInput);
+            return null;
+        }
+        log.info("✓ Searching hotels for: '{}' ({})", cityInput, city.name());
+
+        double[] bbox = city.bbox();
+        if (bbox != null) {
+            log.info("✓ Using map-based search for {}", city.name());
+            log.info("✓ Map search bbox=[{},{},{},{}]", bbox[0], bbox[1], bbox[2], bbox[3]);
+            return buildUrlWithBbox(bbox);
+        }
+
+        if (city.bookingDestId() == null) {
+            log.warn("✗ No destination ID found for city: {}", cityInput);
+            return null;
         }
-        return null;
+        log.info("✓ Calling Booking API with dest_id: {}", city.bookingDestId());
+        return buildUrlWithDestId(city.bookingDestId());
     }
 
     private String buildUrlWithDestId(String destId) {
@@ -0,0 +1,100 @@
+package com.voyageconnect.service;
+
+import com.voyageconnect.model.BookingCityId;
+import com.voyageconnect.repository.BookingCityIdRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lookup table of Booking.com city_id by city name
+ * - Persisted in booking_city_ids and loaded into memory at startup
+ * - Positive results never expire; negative results (no such city) are cached for negative-ttl-hours
+ * - Lookups are answered from memory only
+ */
+@Service
+@Slf4j
+public class BookingCityIdService {
+
+    private final BookingCityIdRepository bookingCityIdRepository;
+    private final Map<String, Resolution> resolutions = new ConcurrentHashMap<>();
+
+    @Value("${voyageconnect.booking-city-ids.negative-ttl-hours:24}")
+    private long negativeTtlHours;
+
+    public BookingCityIdService(BookingCityIdRepository bookingCityIdRepository) {
+        this.bookingCityIdRepository = bookingCityIdRepository;
+    }
+
+    /**
+     * A cached answer from Booking.com; cityId null means "no such city"
+     */
+    public record CachedCityId(String cityId) {
+        public boolean found() {
+            return cityId != null;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadFromDatabase() {
+        try {
+            for (BookingCityId row : bookingCityIdRepository.findAll()) {
+                resolutions.put(row.getCityName(), new Resolution(row.getCityId(), row.getResolvedAt()));
+            }
+            log.info("✓ Loaded {} Booking.com city ID resolutions", resolutions.size());
+        } catch (Exception e) {
+            log.error("✗ Could not load Booking.com city IDs: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Cached resolution for a city name
+     * @return empty when unknown (or the negative result expired): the caller must resolve it;
+     *         otherwise the cached answer, which may be a negative one (see CachedCityId#found)
+     */
+    public Optional<CachedCityId> lookup(String cityName) {
+        Resolution resolution = resolutions.get(normalize(cityName));
+        if (resolution == null) {
+            return Optional.empty();
+        }
+        if (resolution.cityId() == null) {
+            LocalDateTime expiry = resolution.resolvedAt() != null
+                ? resolution.resolvedAt().plusHours(negativeTtlHours)
+                : LocalDateTime.MIN;
+            return LocalDateTime.now().isBefore(expiry) ? Optional.of(new CachedCityId(null)) : Optional.empty();
+        }
+        return Optional.of(new CachedCityId(resolution.cityId()));
+    }
+
+    /**
+     * Record a definitive answer from Booking.com; cityId null means "no such city"
+     */
+    public void store(String cityName, String cityId) {
+        String key = normalize(cityName);
+        LocalDateTime now = LocalDateTime.now();
+        resolutions.put(key, new Resolution(cityId, now));
+        try {
+            BookingCityId row = bookingCityIdRepository.findByCityName(key)
+                .orElseGet(() -> BookingCityId.builder().cityName(key).build());
+            row.setCityId(cityId);
+            row.setResolvedAt(now);
+            bookingCityIdRepository.save(row);
+        } catch (Exception e) {
+            log.warn("Could not persist Booking.com city ID for {}: {}", key, e.getMessage());
+        }
+    }
+
+    private static String normalize(String cityName) {
+        return cityName.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private record Resolution(String cityId, LocalDateTime resolvedAt) {}
+}
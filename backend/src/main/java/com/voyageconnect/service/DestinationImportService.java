@@ -19,8 +19,8 @@ import java.util.List;
 public class DestinationImportService {
 
     private final DestinationRepository destinationRepository;
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
 
     // Popular tourist cities by country
     private static final List<CityCountry> POPULAR_CITIES = List.of(
@@ -0,0 +1,211 @@
+package com.voyageconnect.service;
+
+import com.voyageconnect.cache.DestinationIndex;
+import com.voyageconnect.cache.DestinationSearchCache;
+import com.voyageconnect.model.Destination;
+import com.voyageconnect.repository.DestinationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Offline destination autocomplete (DestinationIndex), answered without a network call
+ * The index is built from:
+ * - the reference data (ReferenceDataRegistry): cities with IATA code, popularity, airport codes and aliases
+ * - the Destination table: listed cities get a popularity boost, unknown ones are added without IATA code
+ * - destinations learned from Amadeus lookups made on an index miss (see AmadeusClientService#searchDestinations)
+ * It is rebuilt at startup, every index-refresh-ms, when the reference data is reloaded and when new
+ * destinations are learned (one rebuild on the provider executor for all destinations learned while it is
+ * queued, never on the request thread).
+ * Metrics: destination.index.requests{result=hit|miss}, destination.index.size (a keyword matching only
+ * by similarity counts as a miss: the provider is still asked)
+ */
+@Service
+@Slf4j
+public class DestinationIndexService {
+
+    private static final int FEATURED_BOOST = 20;
+    private static final int DATABASE_POPULARITY = 50;
+    private static final int LEARNED_POPULARITY = 10;
+    private static final int MAX_LEARNED = 5000;
+
+    private final DestinationRepository destinationRepository;
+    private final ReferenceDataRegistry referenceData;
+    private final Executor providerExecutor;
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private final AtomicReference<DestinationIndex> index = new AtomicReference<>(DestinationIndex.EMPTY);
+    private final Map<String, DestinationIndex.Entry> learned = new ConcurrentHashMap<>();
+    private volatile List<Destination> featured = List.of();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    @Value("${voyageconnect.destinations.index-max-results:10}")
+    private int maxResults;
+
+    public DestinationIndexService(DestinationRepository destinationRepository, ReferenceDataRegistry referenceData,
+                                   @Qualifier("providerExecutor") Executor providerExecutor,
+                                   MeterRegistry meterRegistry) {
+        this.destinationRepository = destinationRepository;
+        this.referenceData = referenceData;
+        this.providerExecutor = providerExecutor;
+        this.hits = requestCounter(meterRegistry, "hit");
+        this.misses = requestCounter(meterRegistry, "miss");
+        Gauge.builder("destination.index.size", index, reference -> reference.get().size())
+                .description("Destinations in the autocomplete index")
+                .register(meterRegistry);
+        // Usable before the first refresh reaches the database
+        reindex();
+    }
+
+    /**
+     * Autocomplete matches in the Amadeus result shape (id, name, iataCode, country)
+     * direct: exact code or name prefix matches; similar: typo matches, only trustworthy next to direct ones
+     */
+    public record Suggestions(List<Map<String, Object>> direct, List<Map<String, Object>> similar) {
+
+        public List<Map<String, Object>> all() {
+            List<Map<String, Object>> all = new ArrayList<>(direct.size() + similar.size());
+            all.addAll(direct);
+            all.addAll(similar);
+            return all;
+        }
+    }
+
+    public Suggestions search(String keyword) {
+        DestinationIndex.Matches matches = index.get().match(keyword, maxResults);
+        (matches.direct().isEmpty() ? misses : hits).increment();
+        return new Suggestions(toMaps(matches.direct()), toMaps(matches.similar()));
+    }
+
+    /**
+     * Add provider results (Amadeus locations) to the index; only destinations with an IATA code the
+     * index does not know yet are kept
+     */
+    public void learn(List<Map<String, Object>> destinations) {
+        DestinationIndex current = index.get();
+        boolean added = false;
+        for (Map<String, Object> destination : destinations) {
+            String code = text(destination.get("iataCode")).toUpperCase(Locale.ROOT);
+            String name = text(destination.get("name"));
+            if (code.isEmpty() || name.isEmpty() || current.byCode(code) != null || learned.size() >= MAX_LEARNED) {
+                continue;
+            }
+            added |= learned.putIfAbsent(code, new DestinationIndex.Entry(text(destination.get("id")), name, code,
+                text(destination.get("country")), LEARNED_POPULARITY, List.of())) == null;
+        }
+        if (added) {
+            scheduleReindex();
+        }
+    }
+
+    /**
+     * Queue one rebuild unless one is already queued; when the executor is saturated the next scheduled
+     * refresh picks the learned destinations up
+     */
+    private void scheduleReindex() {
+        if (!rebuildQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            providerExecutor.execute(() -> {
+                rebuildQueued.set(false);
+                reindex();
+            });
+        } catch (RejectedExecutionException e) {
+            rebuildQueued.set(false);
+            log.debug("Provider executor saturated, learned destinations wait for the next index refresh");
+        }
+    }
+
+    /**
+     * Reload the Destination table and rebuild the index (initial run at startup, then every refresh interval)
+     */
+    @Scheduled(initialDelayString = "${voyageconnect.destinations.index-refresh-initial-delay-ms:0}",
+               fixedDelayString = "${voyageconnect.destinations.index-refresh-ms:600000}")
+    public void refresh() {
+        try {
+            featured = destinationRepository.findAll();
+        } catch (Exception e) {
+            log.error("✗ Destination index: could not read the destinations table, keeping previous list: {}",
+                e.getMessage());
+        }
+        reindex();
+    }
+
+    @EventListener
+    public void onReferenceDataReloaded(ReferenceData data) {
+        reindex();
+    }
+
+    private synchronized void reindex() {
+        // Cities without IATA code cannot be used for flight searches: not suggested
+        Map<String, DestinationIndex.Entry> byName = new LinkedHashMap<>();
+        for (ReferenceData.City city : referenceData.get().cities()) {
+            if (city.iataCode().isEmpty()) {
+                continue;
+            }
+            List<String> aliases = new ArrayList<>(city.aliases());
+            aliases.addAll(city.airports());
+            byName.put(DestinationSearchCache.normalize(city.name()), new DestinationIndex.Entry("C" + city.iataCode(),
+                city.name(), city.iataCode(), city.country(), city.popularity(), List.copyOf(aliases)));
+        }
+
+        for (Destination destination : featured) {
+            String city = DestinationSearchCache.normalize(destination.getCity());
+            if (city.isEmpty()) {
+                continue;
+            }
+            DestinationIndex.Entry known = byName.get(city);
+            byName.put(city, known != null
+                ? new DestinationIndex.Entry(known.id(), known.name(), known.iataCode(), known.country(),
+                    known.popularity() + FEATURED_BOOST, known.aliases())
+                : new DestinationIndex.Entry("DB_" + destination.getId(), destination.getCity(), "",
+                    text(destination.getCountry()), DATABASE_POPULARITY, List.of()));
+        }
+
+        List<DestinationIndex.Entry> entries = new ArrayList<>(byName.values());
+        Set<String> codes = new HashSet<>();
+        entries.forEach(entry -> codes.add(entry.iataCode()));
+        learned.values().stream().filter(entry -> !codes.contains(entry.iataCode())).forEach(entries::add);
+
+        index.set(new DestinationIndex(entries));
+        log.debug("Destination index rebuilt: {} destinations", entries.size());
+    }
+
+    private static List<Map<String, Object>> toMaps(List<DestinationIndex.Entry> entries) {
+        List<Map<String, Object>> destinations = new ArrayList<>(entries.size());
+        entries.forEach(entry -> destinations.add(entry.toMap()));
+        return destinations;
+    }
+
+    private static String text(Object value) {
+        return value != null ? value.toString().trim() : "";
+    }
+
+    private static Counter requestCounter(MeterRegistry registry, String result) {
+        return Counter.builder("destination.index.requests")
+                .description("Destination index lookups")
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,291 @@
+package com.voyageconnect.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.voyageconnect.cache.HotelGeoIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Hotel search across every applicable provider
+ * Booking.com and Amadeus are queried concurrently on the provider executor and awaited until a shared
+ * latency budget runs out; whatever arrived in time is merged into the Booking.com-shaped JSON the
+ * frontend already reads ({"result": [...]}). A provider that fails or misses the budget makes the result
+ * partial (AggregatedHotels#complete), which callers must not cache.
+ * The same property listed by both providers is kept once (the Booking.com entry, which carries real
+ * prices and photos): entries are duplicates when their normalized names match and their coordinates
+ * are within dedupe-distance-meters of each other.
+ * Amadeus only covers Moroccan cities, so other cities have a single provider and are not aggregated.
+ */
+@Service
+@Slf4j
+public class HotelAggregationService {
+
+    private static final Set<String> NAME_NOISE = Set.of("hotel", "hotels", "the", "and", "by", "riad", "resort", "spa");
+
+    private final BookingApiService bookingApiService;
+    private final AmadeusHotelService amadeusHotelService;
+    private final ObjectMapper objectMapper;
+    private final Executor providerExecutor;
+    private final HotelGeoIndex hotelGeoIndex;
+
+    @Value("${voyageconnect.hotels.aggregation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${voyageconnect.hotels.aggregation.budget-ms:4000}")
+    private long budgetMs;
+
+    @Value("${voyageconnect.hotels.aggregation.dedupe-distance-meters:150}")
+    private double dedupeDistanceMeters;
+
+    public HotelAggregationService(BookingApiService bookingApiService,
+                                   AmadeusHotelService amadeusHotelService,
+                                   ObjectMapper objectMapper,
+                                   @Qualifier("providerExecutor") Executor providerExecutor,
+                                   HotelGeoIndex hotelGeoIndex) {
+        this.bookingApiService = bookingApiService;
+        this.amadeusHotelService = amadeusHotelService;
+        this.objectMapper = objectMapper;
+        this.providerExecutor = providerExecutor;
+        this.hotelGeoIndex = hotelGeoIndex;
+    }
+
+    /**
+     * Whether a search for this city goes to more than one provider
+     */
+    public boolean isAggregated(String city) {
+        return enabled && amadeusHotelService.isMoroccanCity(city);
+    }
+
+    /**
+     * Query all providers for the city and merge what arrives within the latency budget
+     */
+    public AggregatedHotels searchHotels(String city) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMs);
+        // Booking.com first: its entries win when a property is listed twice
+        Map<String, CompletableFuture<String>> lookups = new LinkedHashMap<>();
+        // The failing variants: a provider error must not look like "no hotels"
+        lookups.put("booking", submit("booking", () -> bookingApiService.searchHotelsByCity(city)));
+        lookups.put("amadeus", submit("amadeus", () -> amadeusHotelService.searchHotelsBody(city).json()));
+
+        Map<String, List<JsonNode>> found = new LinkedHashMap<>();
+        boolean complete = true;
+        for (Map.Entry<String, CompletableFuture<String>> lookup : lookups.entrySet()) {
+            String json = await(lookup.getKey(), lookup.getValue(), deadline);
+            if (json == null) {
+                complete = false;
+                continue;
+            }
+            found.put(lookup.getKey(), properties(lookup.getKey(), json));
+        }
+        // Entries kept after deduplication, per provider (its id space): the ones added to the spatial index
+        Map<String, List<JsonNode>> kept = dedupe(found, dedupeDistanceMeters);
+        hotelGeoIndex.addAll(kept);
+
+        List<JsonNode> merged = new ArrayList<>();
+        ObjectNode providers = objectMapper.createObjectNode();
+        kept.forEach((provider, properties) -> {
+            merged.addAll(properties);
+            providers.put(provider, properties.size());
+        });
+
+        log.info("✓ Aggregated {} hotels for {} ({}{})", merged.size(), city, providers,
+            complete ? "" : ", partial");
+        ObjectNode response = objectMapper.createObjectNode();
+        ArrayNode result = response.putArray("result");
+        merged.forEach(result::add);
+        response.put("count", merged.size());
+        response.put("total_count_with_filters", merged.size());
+        response.set("providers", providers);
+        return new AggregatedHotels(response.toString(), merged.size(), complete);
+    }
+
+    /**
+     * Individual hotel entries for a city from every provider that covers it (merged and deduplicated when
+     * aggregated), for callers that sort or filter them (search sessions, nearby search)
+     * Every entry with coordinates is also added to the spatial hotel index
+     */
+    public HotelProperties searchProperties(String city) {
+        if (isAggregated(city)) {
+            AggregatedHotels hotels = searchHotels(city);
+            return new HotelProperties(properties("aggregated", hotels.json()), hotels.complete());
+        }
+        boolean moroccan = amadeusHotelService.isMoroccanCity(city);
+        String provider = moroccan ? "amadeus" : "booking";
+        List<JsonNode> properties = properties(provider,
+            moroccan ? amadeusHotelService.searchHotels(city) : bookingApiService.getHotelsByCity(city));
+        hotelGeoIndex.addAll(provider, properties);
+        return new HotelProperties(properties, true);
+    }
+
+    private CompletableFuture<String> submit(String provider, Callable<String> search) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return search.call();
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, providerExecutor);
+        } catch (TaskRejectedException e) {
+            log.warn("Provider executor saturated, skipping {} hotel search", provider);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * Wait for a provider until the shared deadline; null when it failed or did not answer in time
+     */
+    private String await(String provider, CompletableFuture<String> lookup, long deadline) {
+        try {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            return lookup.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Left running: it still completes the coalesced call (and the Amadeus cache) for later searches
+            log.warn("✗ {} hotel search missed the {} ms budget", provider, budgetMs);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            log.warn("✗ {} hotel search failed: {}", provider, e.getCause().getMessage());
+            return null;
+        }
+    }
+
+    private List<JsonNode> properties(String provider, String json) {
+        List<JsonNode> properties = new ArrayList<>();
+        try {
+            JsonNode root = objectMapper.readTree(json);
+            // v2 search answers "results", map search and the Amadeus transform "result"
+            for (String field : new String[]{"results", "result", "search_results"}) {
+                JsonNode list = root.path(field);
+                if (list.isArray()) {
+                    list.forEach(properties::add);
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("✗ Unreadable {} hotel response: {}", provider, e.getMessage());
+        }
+        return properties;
+    }
+
+    /**
+     * Entries of each provider (in provider order) that no earlier provider already listed
+     * Names are normalized once and kept entries grouped by name, so an entry is only compared with the
+     * same-name entries of earlier providers; a provider's own list is never deduplicated against itself
+     */
+    static Map<String, List<JsonNode>> dedupe(Map<String, List<JsonNode>> propertiesByProvider,
+                                              double maxDistanceMeters) {
+        Map<String, List<JsonNode>> keptByName = new HashMap<>();
+        Map<String, List<JsonNode>> kept = new LinkedHashMap<>();
+        for (Map.Entry<String, List<JsonNode>> provider : propertiesByProvider.entrySet()) {
+            List<JsonNode> added = new ArrayList<>();
+            List<String> addedNames = new ArrayList<>();
+            for (JsonNode property : provider.getValue()) {
+                String name = normalizeName(text(property, "name", "hotel_name"));
+                List<JsonNode> sameName = name.isEmpty() ? List.of() : keptByName.getOrDefault(name, List.of());
+                if (sameName.stream().noneMatch(other -> isNearby(other, property, maxDistanceMeters))) {
+                    added.add(property);
+                    addedNames.add(name);
+                }
+            }
+            for (int i = 0; i < added.size(); i++) {
+                if (!addedNames.get(i).isEmpty()) {
+                    keptByName.computeIfAbsent(addedNames.get(i), n -> new ArrayList<>()).add(added.get(i));
+                }
+            }
+            kept.put(provider.getKey(), added);
+        }
+        return kept;
+    }
+
+    /**
+     * Same property listed twice: equal normalized names, and coordinates within maxDistanceMeters
+     * (name alone when either side has no coordinates)
+     */
+    static boolean isSameProperty(JsonNode a, JsonNode b, double maxDistanceMeters) {
+        String nameA = normalizeName(text(a, "name", "hotel_name"));
+        String nameB = normalizeName(text(b, "name", "hotel_name"));
+        return !nameA.isEmpty() && nameA.equals(nameB) && isNearby(a, b, maxDistanceMeters);
+    }
+
+    /**
+     * Coordinates within maxDistanceMeters; true when either side has no coordinates
+     */
+    private static boolean isNearby(JsonNode a, JsonNode b, double maxDistanceMeters) {
+        double[] posA = HotelGeoIndex.coordinates(a);
+        double[] posB = HotelGeoIndex.coordinates(b);
+        if (posA == null || posB == null) {
+            return true;
+        }
+        return HotelGeoIndex.distanceMeters(posA[0], posA[1], posB[0], posB[1]) <= maxDistanceMeters;
+    }
+
+    /**
+     * Lower-case ASCII words without punctuation and generic words ("Hôtel Le Méridien" → "le meridien")
+     */
+    static String normalizeName(String name) {
+        if (name == null) {
+            return "";
+        }
+        String ascii = Normalizer.normalize(name, Normalizer.Form.NFD)
+            .replaceAll("\\p{M}", "")
+            .toLowerCase(Locale.ROOT)
+            .replaceAll("[^a-z0-9]+", " ");
+        StringBuilder normalized = new StringBuilder();
+        for (String word : ascii.trim().split(" ")) {
+            if (!word.isEmpty() && !NAME_NOISE.contains(word)) {
+                if (normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                normalized.append(word);
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static String text(JsonNode node, String... fields) {
+        for (String field : fields) {
+            JsonNode value = node.get(field);
+            if (value != null && value.isTextual()) {
+                return value.asText();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Merged Booking.com-shaped JSON; complete is false when a provider missed the budget or failed
+     */
+    public record AggregatedHotels(String json, int count, boolean complete) {
+    }
+
+    /**
+     * Hotel entries of a city search; complete as in AggregatedHotels
+     */
+    public record HotelProperties(List<JsonNode> properties, boolean complete) {
+    }
+}
@@ -1,22 +1,25 @@
 package com.voyageconnect.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.voyageconnect.client.JsonStreams;
 import com.voyageconnect.dto.HotelDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Service for integrating with Booking.com API via RapidAPI
@@ -28,6 +31,10 @@ public class HotelApiService {
 
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final BookingCityIdService bookingCityIdService;
+    private final ReferenceDataRegistry referenceData;
+
+    private static final int MAX_HOTELS = 6; // Limit to 6 hotels
     
     @Value("${rapidapi.booking.key}")
     private String rapidApiKey;
@@ -38,9 +45,12 @@ public class HotelApiService {
     @Value("${rapidapi.booking.base-url}")
     private String baseUrl;
 
-    public HotelApiService(RestTemplate restTemplate, ObjectMapper objectMapper) {
+    public HotelApiService(RestTemplate restTemplate, ObjectMapper objectMapper,
+                           BookingCityIdService bookingCityIdService, ReferenceDataRegistry referenceData) {
         this.restTemplate = restTemplate;
         this.objectMapper = objectMapper;
+        this.bookingCityIdService = bookingCityIdService;
+        this.referenceData = referenceData;
     }
 
     /**
@@ -82,54 +92,25 @@ public class HotelApiService {
 
     /**
      * Get Booking.com city_id from city name
-     * Calls Booking.com /v1/static/cities endpoint
+     * Answered from the persisted lookup table when known (including cached "no such city" results);
+     * otherwise resolved once via Booking.com /v1/static/cities and recorded
      */
     private String getBookingCityId(String cityName) {
+        Optional<BookingCityIdService.CachedCityId> cached = bookingCityIdService.lookup(cityName);
+        if (cached.isPresent()) {
+            log.debug("✓ Booking city_id for {} from lookup table: {}", cityName,
+                cached.get().found() ? cached.get().cityId() : "none");
+            return cached.get().cityId();
+        }
+
         try {
-            String url = String.format("%s/v1/static/cities?name=%s", baseUrl, cityName);
-            
-            log.info("✓ Fetching Booking city_id from: {}", url);
-            log.info("✓ Using RapidAPI key: {}...", rapidApiKey.substring(0, 10));
-            
-            HttpHeaders headers = createRapidApiHeaders();
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            
-            ResponseEntity<String> response = restTemplate.exchange(
-                url, HttpMethod.GET, entity, String.class);
-            
-            String responseBody = response.getBody();
-            log.info("✓ Cities API HTTP status: {}", response.getStatusCode());
-            log.debug("Cities API response: {}", responseBody);
-            
-            if (responseBody != null && !responseBody.isEmpty()) {
-                try {
-                    JsonNode root = objectMapper.readTree(responseBody);
-                    if (root.isArray() && root.size() > 0) {
-                        JsonNode firstCity = root.get(0);
-                        if (firstCity.has("city_id")) {
-                            String cityId = firstCity.get("city_id").asText();
-                            log.info("✓ Found Booking city_id: {} for city: {}", cityId, cityName);
-                            return cityId;
-                        }
-                    }
-                } catch (Exception parseErr) {
-                    log.warn("Could not parse JSON response: {}", parseErr.getMessage());
-                    // Try manual parsing as fallback
-                    if (responseBody.contains("\"city_id\"")) {
-                        int startIndex = responseBody.indexOf("\"city_id\":") + 10;
-                        int endIndex = responseBody.indexOf(",", startIndex);
-                        if (endIndex == -1) endIndex = responseBody.indexOf("}", startIndex);
-                        if (startIndex > 9 && endIndex > startIndex) {
-                            String cityId = responseBody.substring(startIndex, endIndex).trim().replace("\"", "");
-                            log.info("✓ Found Booking city_id (manual parse): {} for city: {}", cityId, cityName);
-                            return cityId;
-                        }
-                    }
-                }
+            String cityId = fetchBookingCityId(cityName);
+            // Only definitive answers are recorded; transport/auth errors are retried next time
+            bookingCityIdService.store(cityName, cityId);
+            if (cityId == null) {
+                log.warn("✗ No city_id found for: {}. Response was empty or invalid.", cityName);
             }
-            
-            log.warn("✗ No city_id found for: {}. Response was empty or invalid.", cityName);
-            return null;
+            return cityId;
         } catch (Exception e) {
             log.error("✗ Error getting Booking city_id for {}: {} - {}", cityName, e.getClass().getSimpleName(), e.getMessage());
             if (e.getMessage() != null && e.getMessage().contains("401")) {
@@ -143,6 +124,39 @@ public class HotelApiService {
         }
     }
 
+    /**
+     * Calls Booking.com /v1/static/cities and returns the first city_id, or null when none matches
+     * @throws IllegalStateException when the response is not a city list (error or quota message),
+     *         so it is not recorded as "no such city"
+     */
+    private String fetchBookingCityId(String cityName) {
+        String url = String.format("%s/v1/static/cities?name=%s", baseUrl, cityName);
+        log.info("✓ Fetching Booking city_id from: {}", url);
+
+        HttpHeaders headers = createRapidApiHeaders();
+        return restTemplate.execute(url, HttpMethod.GET,
+            request -> request.getHeaders().addAll(headers),
+            response -> {
+                log.info("✓ Cities API HTTP status: {}", response.getStatusCode());
+                if (!response.getStatusCode().is2xxSuccessful()) {
+                    throw new IllegalStateException("Cities API returned HTTP " + response.getStatusCode().value());
+                }
+                try (JsonParser parser = objectMapper.getFactory().createParser(response.getBody())) {
+                    if (parser.nextToken() != JsonToken.START_ARRAY) {
+                        throw new IllegalStateException("Cities API returned " + parser.currentToken() + " instead of a city list");
+                    }
+                    if (!JsonStreams.nextObjectElement(parser)) {
+                        return null;
+                    }
+                    String cityId = JsonStreams.readTextField(parser, "city_id");
+                    if (cityId != null) {
+                        log.info("✓ Found Booking city_id: {} for city: {}", cityId, cityName);
+                    }
+                    return cityId;
+                }
+            });
+    }
+
     /**
      * Search hotels for a specific Booking city_id and dates
      */
@@ -160,21 +174,16 @@ public class HotelApiService {
             log.info("✓ Booking API URL: {}", url);
             
             HttpHeaders headers = createRapidApiHeaders();
-            HttpEntity<String> entity = new HttpEntity<>(headers);
             
-            ResponseEntity<String> response = restTemplate.exchange(
-                url, HttpMethod.GET, entity, String.class);
-            
-            String responseBody = response.getBody();
-            if (responseBody == null || responseBody.isEmpty()) {
+            // Parse the streamed response and convert to HotelDTO list
+            List<HotelDTO> hotels = restTemplate.execute(url, HttpMethod.GET,
+                request -> request.getHeaders().addAll(headers),
+                response -> parseHotelsResponse(response.getBody()));
+            if (hotels == null) {
                 log.warn("✗ Empty response from Booking.com API");
                 return new ArrayList<>();
             }
             
-            log.info("✓ Hotels API response received, length: {} chars", responseBody.length());
-            
-            // Parse the response and convert to HotelDTO list
-            List<HotelDTO> hotels = parseHotelsResponse(responseBody);
             log.info("✓ Successfully fetched {} hotels from Booking.com", hotels.size());
             return hotels;
             
@@ -186,55 +195,63 @@ public class HotelApiService {
 
     /**
      * Parse Booking.com API v2 response to HotelDTO list
+     * Stream-parses result[] and stops after MAX_HOTELS hotels; only the fields below are read
      */
-    private List<HotelDTO> parseHotelsResponse(String jsonResponse) {
+    private List<HotelDTO> parseHotelsResponse(InputStream jsonResponse) {
         List<HotelDTO> hotels = new ArrayList<>();
         
-        try {
-            JsonNode root = objectMapper.readTree(jsonResponse);
-            
-            // Response structure: { "result": [ { "hotel_id", "hotel_name", "price_breakdown": { "gross_price": X }, "review_score": X, ... } ] }
-            JsonNode result = root.get("result");
-            if (result != null && result.isArray()) {
+        // Response structure: { "result": [ { "hotel_id", "hotel_name", "price_breakdown": { "gross_price": X }, "review_score": X, ... } ] }
+        try (JsonParser parser = objectMapper.getFactory().createParser(jsonResponse)) {
+            if (JsonStreams.moveToRootArray(parser, "result")) {
                 int count = 0;
-                for (JsonNode hotelNode : result) {
-                    if (count >= 6) break; // Limit to 6 hotels
+                while (count < MAX_HOTELS && JsonStreams.nextObjectElement(parser)) {
+                    String hotelIdText = null;
+                    String hotelName = "Unknown Hotel";
+                    String grossPrice = null;
+                    String address = "City Center";
+                    String reviewScore = null;
+                    String maxPhotoUrl = null;
+                    String photo = null;
+                    String description = "Quality hotel with comfortable accommodations";
+
+                    String field;
+                    while ((field = JsonStreams.nextField(parser)) != null) {
+                        switch (field) {
+                            case "hotel_id" -> hotelIdText = JsonStreams.readText(parser);
+                            case "hotel_name" -> hotelName = Objects.toString(JsonStreams.readText(parser), hotelName);
+                            case "price_breakdown" -> grossPrice = JsonStreams.readTextField(parser, "gross_price");
+                            case "address" -> address = Objects.toString(JsonStreams.readText(parser), address);
+                            case "review_score" -> reviewScore = JsonStreams.readText(parser);
+                            case "max_photo_url" -> maxPhotoUrl = JsonStreams.readText(parser);
+                            case "photo" -> photo = JsonStreams.readText(parser);
+                            case "hotel_type_name" -> description = Objects.toString(JsonStreams.readText(parser), description);
+                            default -> parser.skipChildren();
+                        }
+                    }
                     
                     try {
-                        long hotelId = hotelNode.has("hotel_id") ? hotelNode.get("hotel_id").asLong() : count + 1;
-                        String hotelName = hotelNode.has("hotel_name") ? hotelNode.get("hotel_name").asText() : "Unknown Hotel";
+                        long hotelId = hotelIdText != null ? Long.parseLong(hotelIdText) : count + 1;
                         
                         // Extract price
-                        BigDecimal price = BigDecimal.valueOf(200.0);
-                        if (hotelNode.has("price_breakdown") && hotelNode.get("price_breakdown").has("gross_price")) {
-                            double priceVal = hotelNode.get("price_breakdown").get("gross_price").asDouble();
-                            price = new BigDecimal(priceVal);
-                        }
-                        
-                        // Extract address
-                        String address = "City Center";
-                        if (hotelNode.has("address")) {
-                            address = hotelNode.get("address").asText();
-                        }
+                        BigDecimal price = grossPrice != null
+                            ? new BigDecimal(Double.parseDouble(grossPrice))
+                            : BigDecimal.valueOf(200.0);
                         
                         // Extract rating
                         double rating = 4.0;
-                        if (hotelNode.has("review_score")) {
-                            rating = hotelNode.get("review_score").asDouble();
+                        if (reviewScore != null) {
+                            rating = Double.parseDouble(reviewScore);
                             if (rating > 10) rating = rating / 2; // Some APIs return 0-10, we need 0-5
                         }
                         
                         // Extract image URL
                         String imageUrl = "https://images.unsplash.com/photo-1566073771259-6a8506099945?w=400&h=300&fit=crop";
-                        if (hotelNode.has("max_photo_url")) {
-                            imageUrl = hotelNode.get("max_photo_url").asText();
-                        } else if (hotelNode.has("photo")) {
-                            imageUrl = hotelNode.get("photo").asText();
+                        if (maxPhotoUrl != null) {
+                            imageUrl = maxPhotoUrl;
+                        } else if (photo != null) {
+                            imageUrl = photo;
                         }
                         
-                        String description = hotelNode.has("hotel_type_name") ? 
-                            hotelNode.get("hotel_type_name").asText() : "Quality hotel with comfortable accommodations";
-                        
                         HotelDTO hotel = new HotelDTO(
                             hotelId,
                             hotelName,
@@ -278,23 +295,10 @@ public class HotelApiService {
     }
 
     /**
-     * Map IATA city codes to city names for Booking.com API
+     * Map IATA city / airport codes to city names for Booking.com API (reference data; unknown codes unchanged)
      */
     private String mapCityCodeToName(String cityCode) {
-        return switch (cityCode.toUpperCase()) {
-            case "PAR", "CDG" -> "Paris";
-            case "LON", "LHR" -> "London";
-            case "NYC", "JFK" -> "New York";
-            case "TYO", "NRT" -> "Tokyo";
-            case "DXB" -> "Dubai";
-            case "BCN" -> "Barcelona";
-            case "ROM", "FCO" -> "Rome";
-            case "BKK" -> "Bangkok";
-            case "SYD" -> "Sydney";
-            case "AMS" -> "Amsterdam";
-            case "BER" -> "Berlin";
-            case "MAD" -> "Madrid";
-            default -> cityCode;
-        };
+        ReferenceData.City city = referenceData.lookup(cityCode);
+        return city != null ? city.name() : cityCode;
     }
 }
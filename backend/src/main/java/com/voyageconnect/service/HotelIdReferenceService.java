@@ -0,0 +1,231 @@
+package com.voyageconnect.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.voyageconnect.client.RequestPriority;
+import com.voyageconnect.model.CityHotelIds;
+import com.voyageconnect.repository.CityHotelIdsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Reference cache of Amadeus hotel IDs per city code (step 1 of the two-step hotel search)
+ * - Persisted in the city_hotel_ids table with a refresh timestamp
+ * - Loaded into memory at startup (at most max-cities, the least recently refreshed city is dropped first);
+ *   a city missing from memory is read from the database before Amadeus is asked
+ * - Unknown cities are fetched once on the request thread, known ones are refreshed in the background
+ * - Only IATA city codes are accepted, and cities without hotels are not stored
+ */
+@Service
+@Slf4j
+public class HotelIdReferenceService {
+
+    private static final Pattern CITY_CODE = Pattern.compile("[A-Z]{3}");
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final AmadeusAuthService authService;
+    private final CityHotelIdsRepository cityHotelIdsRepository;
+
+    private final Map<String, Entry> hotelIdsByCity = new ConcurrentHashMap<>();
+
+    @Value("${voyageconnect.hotel-ids.max-age-hours:24}")
+    private long maxAgeHours;
+
+    @Value("${voyageconnect.hotel-ids.max-per-city:60}")
+    private int maxPerCity;
+
+    @Value("${voyageconnect.hotel-ids.max-cities:2000}")
+    private int maxCities;
+
+    public HotelIdReferenceService(RestTemplate restTemplate, ObjectMapper objectMapper,
+                                   AmadeusAuthService authService, CityHotelIdsRepository cityHotelIdsRepository) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.authService = authService;
+        this.cityHotelIdsRepository = cityHotelIdsRepository;
+    }
+
+    /**
+     * Load every persisted city into memory once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadFromDatabase() {
+        try {
+            for (CityHotelIds row : cityHotelIdsRepository.findAll()) {
+                List<String> hotelIds = split(row.getHotelIds());
+                if (!hotelIds.isEmpty()) {
+                    remember(row.getCityCode(), new Entry(hotelIds, row.getRefreshedAt()));
+                }
+            }
+            log.info("✓ Loaded hotel IDs for {} cities from city_hotel_ids", hotelIdsByCity.size());
+        } catch (Exception e) {
+            log.error("✗ Could not load hotel ID reference data: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Hotel IDs for a city: from memory or the database when known, otherwise fetched from Amadeus and persisted
+     * @throws IllegalArgumentException when cityCode is not a 3-letter IATA city code
+     */
+    public List<String> getHotelIds(String cityCode) throws Exception {
+        String key = cityCode == null ? "" : cityCode.trim().toUpperCase(Locale.ROOT);
+        if (!CITY_CODE.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid IATA city code: " + cityCode);
+        }
+        Entry entry = hotelIdsByCity.get(key);
+        if (entry != null) {
+            return entry.hotelIds();
+        }
+        entry = findPersisted(key);
+        if (entry != null) {
+            remember(key, entry);
+            return entry.hotelIds();
+        }
+        return refresh(key);
+    }
+
+    /**
+     * Background refresh of cities whose hotel list is older than max-age
+     * A failed refresh keeps the current list
+     */
+    @Scheduled(initialDelayString = "${voyageconnect.hotel-ids.refresh-initial-delay-ms:600000}",
+               fixedDelayString = "${voyageconnect.hotel-ids.refresh-check-ms:3600000}")
+    public void refreshStaleCities() {
+        LocalDateTime threshold = LocalDateTime.now().minusHours(maxAgeHours);
+        for (Map.Entry<String, Entry> city : hotelIdsByCity.entrySet()) {
+            LocalDateTime refreshedAt = city.getValue().refreshedAt();
+            if (refreshedAt == null || refreshedAt.isBefore(threshold)) {
+                try {
+                    RequestPriority.callAs(RequestPriority.WARMUP, () -> refresh(city.getKey()));
+                } catch (Exception e) {
+                    log.warn("Hotel ID refresh failed for {}, keeping previous list: {}", city.getKey(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private List<String> refresh(String cityCode) throws Exception {
+        List<String> hotelIds = List.copyOf(fetchHotelIdsByCity(cityCode));
+        if (hotelIds.isEmpty()) {
+            // Nothing worth keeping; a previously known list stays in use
+            return hotelIds;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        remember(cityCode, new Entry(hotelIds, now));
+
+        try {
+            persist(cityCode, hotelIds, now);
+        } catch (Exception e) {
+            // The in-memory entry is still valid; it will be persisted on the next refresh
+            log.warn("Could not persist hotel IDs for {}: {}", cityCode, e.getMessage());
+        }
+        return hotelIds;
+    }
+
+    /**
+     * Insert or update the city row; a concurrent first lookup of the same city may insert it first,
+     * in which case that row is updated instead
+     */
+    private void persist(String cityCode, List<String> hotelIds, LocalDateTime refreshedAt) {
+        try {
+            save(cityCode, hotelIds, refreshedAt);
+        } catch (DataIntegrityViolationException e) {
+            save(cityCode, hotelIds, refreshedAt);
+        }
+    }
+
+    private void save(String cityCode, List<String> hotelIds, LocalDateTime refreshedAt) {
+        CityHotelIds row = cityHotelIdsRepository.findByCityCode(cityCode)
+            .orElseGet(() -> CityHotelIds.builder().cityCode(cityCode).build());
+        row.setHotelIds(String.join(",", hotelIds));
+        row.setRefreshedAt(refreshedAt);
+        cityHotelIdsRepository.save(row);
+    }
+
+    private Entry findPersisted(String cityCode) {
+        try {
+            return cityHotelIdsRepository.findByCityCode(cityCode)
+                .map(row -> new Entry(split(row.getHotelIds()), row.getRefreshedAt()))
+                .filter(entry -> !entry.hotelIds().isEmpty())
+                .orElse(null);
+        } catch (Exception e) {
+            log.warn("Could not read hotel IDs for {}: {}", cityCode, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Keep a city in memory, dropping the least recently refreshed city when max-cities is reached
+     * (it stays in the database)
+     */
+    private void remember(String cityCode, Entry entry) {
+        if (!hotelIdsByCity.containsKey(cityCode) && hotelIdsByCity.size() >= maxCities) {
+            hotelIdsByCity.entrySet().stream()
+                .min(Comparator.comparing(city -> city.getValue().refreshedAt(),
+                    Comparator.nullsFirst(Comparator.naturalOrder())))
+                .ifPresent(oldest -> hotelIdsByCity.remove(oldest.getKey()));
+        }
+        hotelIdsByCity.put(cityCode, entry);
+    }
+
+    /**
+     * Get hotel IDs for a given city
+     * Calls: GET /v1/reference-data/locations/hotels/by-city
+     */
+    private List<String> fetchHotelIdsByCity(String cityCode) throws Exception {
+        String url = String.format(
+            "https://test.api.amadeus.com/v1/reference-data/locations/hotels/by-city?cityCode=%s&max=%d",
+            cityCode, maxPerCity);
+        log.info("  [Step 1] Fetching hotel IDs from: {}", url);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + authService.getAccessToken());
+        HttpEntity<String> entity = new HttpEntity<>(headers);
+
+        String response = restTemplate.exchange(url, HttpMethod.GET, entity, String.class).getBody();
+        
+        List<String> hotelIds = new ArrayList<>();
+        if (response != null && !response.isEmpty()) {
+            JsonNode data = objectMapper.readTree(response).get("data");
+            if (data != null && data.isArray()) {
+                for (JsonNode hotel : data) {
+                    if (hotel.has("hotelId")) {
+                        hotelIds.add(hotel.get("hotelId").asText());
+                    }
+                }
+            }
+        }
+        
+        log.info("  [Step 1] Extracted {} hotel IDs for {}", hotelIds.size(), cityCode);
+        return hotelIds;
+    }
+
+    private static List<String> split(String hotelIds) {
+        if (hotelIds == null || hotelIds.isBlank()) {
+            return List.of();
+        }
+        return List.copyOf(Arrays.asList(hotelIds.split(",")));
+    }
+
+    private record Entry(List<String> hotelIds, LocalDateTime refreshedAt) {}
+}
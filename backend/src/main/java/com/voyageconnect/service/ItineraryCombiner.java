@@ -0,0 +1,98 @@
+package com.voyageconnect.service;
+
+import com.voyageconnect.dto.FlightDTO;
+import com.voyageconnect.dto.ItinerarySearchDTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Cheapest combinations of per-leg offers, without building the full cartesian product
+ * Offers are sorted by price per leg and combinations are visited best-first (lowest total first);
+ * a combination is kept only when every leg departs after the previous one arrives.
+ */
+final class ItineraryCombiner {
+
+    private ItineraryCombiner() {
+    }
+
+    static List<ItinerarySearchDTO.Itinerary> cheapest(List<List<FlightDTO>> legs, int limit, int maxVisited) {
+        if (legs.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        List<List<FlightDTO>> sorted = new ArrayList<>();
+        for (List<FlightDTO> leg : legs) {
+            List<FlightDTO> priced = leg.stream()
+                .filter(flight -> flight.getPrice() != null)
+                .sorted(Comparator.comparing(FlightDTO::getPrice))
+                .toList();
+            if (priced.isEmpty()) {
+                return List.of();
+            }
+            sorted.add(priced);
+        }
+
+        // Each candidate only advances legs at or after the last advanced one, so every combination is queued once
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(Comparator.comparing(Candidate::total));
+        queue.add(new Candidate(new int[sorted.size()], 0, total(sorted, new int[sorted.size()])));
+
+        List<ItinerarySearchDTO.Itinerary> itineraries = new ArrayList<>();
+        int visited = 0;
+        while (!queue.isEmpty() && itineraries.size() < limit && visited++ < maxVisited) {
+            Candidate candidate = queue.poll();
+            List<FlightDTO> flights = new ArrayList<>(sorted.size());
+            for (int leg = 0; leg < sorted.size(); leg++) {
+                flights.add(sorted.get(leg).get(candidate.indices()[leg]));
+            }
+            if (isConnected(flights)) {
+                itineraries.add(new ItinerarySearchDTO.Itinerary(candidate.total(), flights));
+            }
+            for (int leg = candidate.lastAdvanced(); leg < sorted.size(); leg++) {
+                if (candidate.indices()[leg] + 1 < sorted.get(leg).size()) {
+                    int[] next = Arrays.copyOf(candidate.indices(), candidate.indices().length);
+                    next[leg]++;
+                    queue.add(new Candidate(next, leg, total(sorted, next)));
+                }
+            }
+        }
+        return itineraries;
+    }
+
+    /**
+     * Every leg departs after the previous leg arrives (unknown times are accepted)
+     */
+    static boolean isConnected(List<FlightDTO> flights) {
+        for (int leg = 1; leg < flights.size(); leg++) {
+            LocalDateTime arrival = parse(flights.get(leg - 1).getArrival());
+            LocalDateTime departure = parse(flights.get(leg).getDeparture());
+            if (arrival != null && departure != null && !departure.isAfter(arrival)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static BigDecimal total(List<List<FlightDTO>> legs, int[] indices) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int leg = 0; leg < legs.size(); leg++) {
+            total = total.add(legs.get(leg).get(indices[leg]).getPrice());
+        }
+        return total;
+    }
+
+    private static LocalDateTime parse(String dateTime) {
+        try {
+            return dateTime != null ? LocalDateTime.parse(dateTime) : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private record Candidate(int[] indices, int lastAdvanced, BigDecimal total) {
+    }
+}
@@ -0,0 +1,180 @@
+package com.voyageconnect.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.voyageconnect.cache.HttpCaching;
+import com.voyageconnect.client.RequestPriority;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Builds the default destination listing (no keyword) shown on the landing page
+ * The per-city Amadeus lookups run concurrently on the provider executor under one overall deadline;
+ * cities that miss the deadline are left out of the result instead of delaying it
+ *
+ * The listing is identical for every visitor, so a scheduled job rebuilds it in the background and keeps it
+ * as pre-serialized JSON; requests are answered from that snapshot. A failed or empty refresh keeps the
+ * last good snapshot.
+ */
+@Service
+@Slf4j
+public class PopularDestinationService {
+
+    // Popular cities including Moroccan destinations, in display order
+    static final String[] POPULAR_CITIES = {
+        "Paris", "London", "New York", "Tokyo", "Dubai", "Barcelona", "Rome", "Amsterdam", 
+        // Moroccan cities - naturally integrated
+        "Casablanca", "Marrakech", "Rabat", "Fes", "Tangier", "Agadir", 
+        "Madrid", "Berlin", "Singapore"
+    };
+
+    static final int MAX_RESULTS = 50;
+
+    private static final Snapshot EMPTY_SNAPSHOT = Snapshot.of("[]".getBytes(StandardCharsets.UTF_8));
+
+    private final AmadeusClientService amadeusClientService;
+    private final Executor providerExecutor;
+    private final ObjectMapper objectMapper;
+
+    // Last good listing as JSON bytes; replaced atomically, never modified in place
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    @Value("${voyageconnect.destinations.popular-deadline-ms:3000}")
+    private long deadlineMs;
+
+    @Value("${voyageconnect.destinations.snapshot-deadline-ms:15000}")
+    private long snapshotDeadlineMs;
+
+    public PopularDestinationService(AmadeusClientService amadeusClientService,
+                                     @Qualifier("providerExecutor") Executor providerExecutor,
+                                     ObjectMapper objectMapper) {
+        this.amadeusClientService = amadeusClientService;
+        this.providerExecutor = providerExecutor;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Popular destinations as pre-serialized JSON with its ETag
+     * Built synchronously only when no snapshot exists yet (first request before the first refresh)
+     */
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            refresh(deadlineMs);
+            current = snapshot.get();
+        }
+        return current != null ? current : EMPTY_SNAPSHOT;
+    }
+
+    /**
+     * Rebuild the snapshot in the background (initial run at startup, then every refresh interval)
+     */
+    @Scheduled(initialDelayString = "${voyageconnect.destinations.snapshot-initial-delay-ms:0}",
+               fixedDelayString = "${voyageconnect.destinations.snapshot-refresh-ms:600000}")
+    public void refreshSnapshot() {
+        RequestPriority.runAs(RequestPriority.WARMUP, () -> refresh(snapshotDeadlineMs));
+    }
+
+    private void refresh(long deadlineMs) {
+        try {
+            List<Map<String, Object>> destinations = buildPopularDestinations(deadlineMs);
+            if (destinations.isEmpty()) {
+                log.warn("Popular destinations refresh returned no results, keeping previous snapshot");
+                return;
+            }
+            snapshot.set(Snapshot.of(objectMapper.writeValueAsBytes(destinations)));
+            log.info("✓ Popular destinations snapshot refreshed: {} destinations", destinations.size());
+        } catch (Exception e) {
+            log.error("✗ Popular destinations refresh failed, keeping previous snapshot: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Search every popular city concurrently and merge the results in POPULAR_CITIES order
+     * (limited to MAX_RESULTS, a city's results are never split)
+     */
+    public List<Map<String, Object>> buildPopularDestinations() {
+        return buildPopularDestinations(deadlineMs);
+    }
+
+    private List<Map<String, Object>> buildPopularDestinations(long deadlineMs) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+
+        List<CompletableFuture<List<Map<String, Object>>>> lookups = new ArrayList<>(POPULAR_CITIES.length);
+        for (String city : POPULAR_CITIES) {
+            lookups.add(submit(city));
+        }
+
+        List<Map<String, Object>> allDestinations = new ArrayList<>();
+        int dropped = 0;
+        for (int i = 0; i < POPULAR_CITIES.length && allDestinations.size() < MAX_RESULTS; i++) {
+            List<Map<String, Object>> cityDests = await(POPULAR_CITIES[i], lookups.get(i), deadline);
+            if (cityDests == null) {
+                dropped++;
+            } else {
+                allDestinations.addAll(cityDests);
+            }
+        }
+
+        if (dropped > 0) {
+            log.warn("Popular destinations: {} of {} cities missed the {} ms deadline and were skipped",
+                dropped, POPULAR_CITIES.length, deadlineMs);
+        }
+        return allDestinations;
+    }
+
+    private CompletableFuture<List<Map<String, Object>>> submit(String city) {
+        try {
+            return CompletableFuture.supplyAsync(() -> amadeusClientService.searchDestinations(city), providerExecutor);
+        } catch (TaskRejectedException e) {
+            log.warn("Provider executor saturated, skipping popular city {}", city);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * Wait for a city lookup until the shared deadline; null when it did not finish in time
+     */
+    private List<Map<String, Object>> await(String city, CompletableFuture<List<Map<String, Object>>> lookup, long deadline) {
+        try {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            return lookup.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // The lookup keeps running and still warms the destination cache for the next request
+            log.debug("Popular city {} missed the deadline", city);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            log.warn("Popular city {} lookup failed: {}", city, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Serialized popular destinations; the ETag is computed once per refresh, not per request
+     */
+    public record Snapshot(byte[] json, String etag) {
+        static Snapshot of(byte[] json) {
+            return new Snapshot(json, HttpCaching.etag(json));
+        }
+
+        public boolean isEmpty() {
+            return this == EMPTY_SNAPSHOT;
+        }
+    }
+}
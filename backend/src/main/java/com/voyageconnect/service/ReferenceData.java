@@ -0,0 +1,121 @@
+package com.voyageconnect.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.voyageconnect.cache.DestinationSearchCache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * One immutable, versioned snapshot of the travel reference data (cities, airports, provider IDs)
+ * Indexed once when loaded: O(1) lookup by city or airport IATA code and by normalized name or alias
+ * (accent-free, case-insensitive, so "Fès", "FES" and "fes" are the same key).
+ * Replaced as a whole by ReferenceDataRegistry#reload, never modified.
+ */
+public final class ReferenceData {
+
+    public static final ReferenceData EMPTY = new ReferenceData("none", List.of());
+
+    /**
+     * One city
+     * @param iataCode       IATA city (metropolitan) code, empty for cities without an airport
+     * @param airports       IATA codes of the city's airports, when they differ from iataCode
+     * @param aliases        other names and spellings, airport names
+     * @param bookingDestId  Booking.com dest_id for the destination-ID search
+     * @param bbox           {ne_lat, ne_lon, sw_lat, sw_lon} for the Booking.com map search (preferred when set)
+     * @param amadeusHotels  whether hotels are also searched through Amadeus (see AmadeusHotelService)
+     */
+    public record City(String iataCode, String name, String country, int popularity, List<String> airports,
+                       List<String> aliases, String bookingDestId, double[] bbox, boolean amadeusHotels) {
+
+        public City {
+            iataCode = iataCode == null ? "" : iataCode.trim().toUpperCase(Locale.ROOT);
+            airports = airports == null ? List.of() : List.copyOf(airports);
+            aliases = aliases == null ? List.of() : List.copyOf(aliases);
+            if (name == null || name.isBlank()) {
+                throw new IllegalArgumentException("City without name (" + iataCode + ")");
+            }
+            if (bbox != null && bbox.length != 4) {
+                throw new IllegalArgumentException("bbox of " + name + " must be {ne_lat, ne_lon, sw_lat, sw_lon}");
+            }
+        }
+    }
+
+    /**
+     * File layout: {"version": "...", "cities": [City, ...]}
+     */
+    private record Document(String version, List<City> cities) {
+    }
+
+    private final String version;
+    private final List<City> cities;
+    private final Map<String, City> byCode = new HashMap<>();
+    private final Map<String, City> byName = new HashMap<>();
+
+    /**
+     * @throws IllegalArgumentException when an IATA code is used by two cities
+     */
+    public ReferenceData(String version, List<City> cities) {
+        this.version = version;
+        this.cities = List.copyOf(cities);
+        for (City city : this.cities) {
+            if (!city.iataCode().isEmpty()) {
+                putCode(city.iataCode(), city);
+            }
+            city.airports().forEach(airport -> putCode(airport.trim().toUpperCase(Locale.ROOT), city));
+            byName.putIfAbsent(DestinationSearchCache.normalize(city.name()), city);
+            city.aliases().forEach(alias -> byName.putIfAbsent(DestinationSearchCache.normalize(alias), city));
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException when the document has no version, no cities or an invalid city
+     */
+    public static ReferenceData parse(InputStream in, ObjectMapper objectMapper) throws IOException {
+        Document document = objectMapper.readValue(in, Document.class);
+        if (document.version() == null || document.version().isBlank()) {
+            throw new IllegalArgumentException("Reference data without version");
+        }
+        if (document.cities() == null || document.cities().isEmpty()) {
+            throw new IllegalArgumentException("Reference data " + document.version() + " has no cities");
+        }
+        return new ReferenceData(document.version(), document.cities());
+    }
+
+    public String version() {
+        return version;
+    }
+
+    public List<City> cities() {
+        return cities;
+    }
+
+    /**
+     * City for a city or airport IATA code, or null
+     */
+    public City byCode(String code) {
+        return code == null ? null : byCode.get(code.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * City for user input: an IATA code (city or airport), a name or an alias; null when unknown
+     */
+    public City lookup(String input) {
+        if (input == null) {
+            return null;
+        }
+        City city = byCode(input);
+        return city != null ? city : byName.get(DestinationSearchCache.normalize(input));
+    }
+
+    private void putCode(String code, City city) {
+        City previous = byCode.putIfAbsent(code, city);
+        if (previous != null && previous != city) {
+            throw new IllegalArgumentException("IATA code " + code + " used by " + previous.name() + " and " + city.name());
+        }
+    }
+}
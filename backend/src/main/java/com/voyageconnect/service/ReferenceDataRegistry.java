@@ -0,0 +1,107 @@
+package com.voyageconnect.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Single source of the travel reference data (IATA codes, city names and aliases, Booking.com dest_ids and
+ * map-search bounding boxes, Amadeus hotel coverage), read from voyageconnect.reference-data.location
+ * - Loaded at startup; an unreadable or invalid file there fails the startup
+ * - Hot reload without restart: when the file changes on disk (checked every check-interval-ms) or through
+ *   POST /api/admin/reference-data/reload. The new snapshot replaces the old one atomically; an invalid
+ *   file is rejected and the previous snapshot stays in use
+ * - Every reload publishes the new ReferenceData as an application event (see DestinationIndexService)
+ */
+@Service
+@Slf4j
+public class ReferenceDataRegistry {
+
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Resource location;
+    private final AtomicReference<ReferenceData> current = new AtomicReference<>(ReferenceData.EMPTY);
+    private volatile long loadedLastModified;
+
+    public ReferenceDataRegistry(ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher,
+                                 ResourceLoader resourceLoader,
+                                 @Value("${voyageconnect.reference-data.location:classpath:data/reference-data.json}") String location) {
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.location = resourceLoader.getResource(location);
+        current.set(read());
+    }
+
+    public ReferenceData get() {
+        return current.get();
+    }
+
+    /**
+     * City for an IATA code, name or alias, or null (see ReferenceData#lookup)
+     */
+    public ReferenceData.City lookup(String input) {
+        return current.get().lookup(input);
+    }
+
+    /**
+     * Read the file again and swap it in
+     * @throws IllegalStateException when the file cannot be read or is invalid (the previous data stays in use)
+     */
+    public synchronized ReferenceData reload() {
+        ReferenceData previous = current.get();
+        ReferenceData data = read();
+        current.set(data);
+        log.info("✓ Reference data reloaded: version {} → {}", previous.version(), data.version());
+        eventPublisher.publishEvent(data);
+        return data;
+    }
+
+    /**
+     * Reload when the file changed on disk; files inside the application jar have no usable modification time
+     */
+    @Scheduled(initialDelayString = "${voyageconnect.reference-data.check-interval-ms:30000}",
+               fixedDelayString = "${voyageconnect.reference-data.check-interval-ms:30000}")
+    public void reloadIfModified() {
+        long lastModified = lastModified();
+        if (lastModified <= 0 || lastModified == loadedLastModified) {
+            return;
+        }
+        try {
+            reload();
+        } catch (IllegalStateException e) {
+            // Do not retry the same broken file every interval
+            loadedLastModified = lastModified;
+            log.error("✗ {}", e.getMessage());
+        }
+    }
+
+    private ReferenceData read() {
+        long lastModified = lastModified();
+        try (InputStream in = location.getInputStream()) {
+            ReferenceData data = ReferenceData.parse(in, objectMapper);
+            loadedLastModified = lastModified;
+            log.info("✓ Loaded reference data {} (version {}, {} cities)", location.getDescription(),
+                data.version(), data.cities().size());
+            return data;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid reference data " + location.getDescription() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private long lastModified() {
+        try {
+            return location.isFile() ? location.lastModified() : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
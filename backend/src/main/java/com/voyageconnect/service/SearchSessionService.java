@@ -0,0 +1,127 @@
+package com.voyageconnect.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.voyageconnect.cache.SearchSession;
+import com.voyageconnect.cache.SearchSessionStore;
+import com.voyageconnect.dto.FlexibleFlightSearchDTO;
+import com.voyageconnect.dto.FlightDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates search sessions from one provider search
+ * The results are normalized once (price, duration, departure, rating, airline) and kept server-side, so
+ * re-sorting, filtering and paging are answered by SearchSessionStore without calling the providers again.
+ * Empty results do not create a session (null), unless they are partial: a provider failed or missed its
+ * latency budget. Partial sessions are short-lived (see SearchSessionStore).
+ */
+@Service
+@Slf4j
+public class SearchSessionService {
+
+    private final AmadeusClientService amadeusClientService;
+    private final HotelAggregationService hotelAggregationService;
+    private final SearchSessionStore searchSessionStore;
+
+    public SearchSessionService(AmadeusClientService amadeusClientService,
+                                HotelAggregationService hotelAggregationService,
+                                SearchSessionStore searchSessionStore) {
+        this.amadeusClientService = amadeusClientService;
+        this.hotelAggregationService = hotelAggregationService;
+        this.searchSessionStore = searchSessionStore;
+    }
+
+    /**
+     * One-way flight search, or a flexible-date search when flexDays > 0
+     */
+    public SearchSession searchFlights(String origin, String destination, String departureDate, int adults,
+                                       int flexDays) {
+        List<FlightDTO> flights;
+        boolean complete = true;
+        if (flexDays > 0) {
+            FlexibleFlightSearchDTO result =
+                amadeusClientService.searchFlightsFlexible(origin, destination, departureDate, flexDays, adults);
+            flights = result.getFlights();
+            complete = result.isComplete();
+        } else {
+            flights = amadeusClientService.searchFlights(origin, destination, departureDate, adults);
+        }
+
+        List<SearchSession.Item> items = new ArrayList<>(flights.size());
+        for (FlightDTO flight : flights) {
+            items.add(new SearchSession.Item(flight,
+                flight.getPrice() != null ? flight.getPrice().doubleValue() : null,
+                durationMinutes(flight), flight.getDeparture(), null, flight.getAirline()));
+        }
+        return create(SearchSession.Kind.FLIGHTS, items, complete, origin + " → " + destination);
+    }
+
+    public SearchSession searchHotels(String city) {
+        HotelAggregationService.HotelProperties properties = hotelAggregationService.searchProperties(city);
+        List<SearchSession.Item> items = new ArrayList<>(properties.properties().size());
+        for (JsonNode property : properties.properties()) {
+            items.add(new SearchSession.Item(property, hotelPrice(property), null, null,
+                number(property.path("reviewScore"), property.path("review_score")), null));
+        }
+        return create(SearchSession.Kind.HOTELS, items, properties.complete(), city);
+    }
+
+    private SearchSession create(SearchSession.Kind kind, List<SearchSession.Item> items, boolean complete,
+                                 String label) {
+        if (items.isEmpty() && complete) {
+            return null;
+        }
+        SearchSession session = searchSessionStore.create(kind, items, complete);
+        log.info("✓ Search session {} for {} {}: {} results{}", session.getId(), kind, label, items.size(),
+            complete ? "" : " (partial)");
+        return session;
+    }
+
+    /**
+     * Offer duration (ISO-8601), else departure → arrival of the first and last segment
+     */
+    static Long durationMinutes(FlightDTO flight) {
+        try {
+            if (flight.getDuration() != null) {
+                return Duration.parse(flight.getDuration()).toMinutes();
+            }
+            if (flight.getDeparture() != null && flight.getArrival() != null) {
+                return Duration.between(LocalDateTime.parse(flight.getDeparture()),
+                    LocalDateTime.parse(flight.getArrival())).toMinutes();
+            }
+        } catch (RuntimeException e) {
+            log.debug("Unreadable duration for flight {}: {}", flight.getId(), e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Price fields of the Booking.com v2 search, the map search and the Amadeus transform
+     */
+    private static Double hotelPrice(JsonNode property) {
+        return number(property.path("priceBreakdown").path("grossPrice").path("value"),
+            property.path("min_total_price"),
+            property.path("price_breakdown").path("gross_price"));
+    }
+
+    private static Double number(JsonNode... candidates) {
+        for (JsonNode candidate : candidates) {
+            if (candidate.isNumber()) {
+                return candidate.doubleValue();
+            }
+            if (candidate.isTextual()) {
+                try {
+                    return Double.parseDouble(candidate.asText());
+                } catch (NumberFormatException ignored) {
+                    // try the next field
+                }
+            }
+        }
+        return null;
+    }
+}
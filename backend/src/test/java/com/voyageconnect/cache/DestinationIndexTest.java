@@ -0,0 +1,55 @@
+package com.voyageconnect.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DestinationIndexTest {
+
+    private final DestinationIndex index = new DestinationIndex(List.of(
+        new DestinationIndex.Entry("CPAR", "Paris", "PAR", "France", 100, List.of("CDG", "Orly")),
+        new DestinationIndex.Entry("CRAK", "Marrakech", "RAK", "Morocco", 95, List.of("Marrakesh")),
+        new DestinationIndex.Entry("CMAD", "Madrid", "MAD", "Spain", 88, List.of()),
+        new DestinationIndex.Entry("CFEZ", "Fes", "FEZ", "Morocco", 86, List.of("Fès")),
+        new DestinationIndex.Entry("CMRS", "Marseille", "MRS", "France", 68, List.of()),
+        new DestinationIndex.Entry("CNYC", "New York", "NYC", "United States", 98, List.of())));
+
+    @Test
+    void search_prefixMatchesRankedByPopularity() {
+        assertEquals(List.of("Marrakech", "Madrid", "Marseille"), names(index.search("Ma", 10)));
+        assertEquals(List.of("New York"), names(index.search("york", 10)));
+    }
+
+    @Test
+    void search_ignoresAccentsAndCase() {
+        assertEquals(List.of("Fes"), names(index.search("FÈS", 10)));
+    }
+
+    @Test
+    void search_exactCodeFirst() {
+        assertEquals("Paris", index.search("cdg", 10).get(0).name());
+        assertEquals("Marseille", index.search("MRS", 10).get(0).name());
+        assertEquals("Paris", index.byCode("CDG").name());
+    }
+
+    @Test
+    void search_toleratesTypos() {
+        assertEquals(List.of("Marrakech"), names(index.search("marakech", 10)));
+        assertTrue(index.search("zzzz", 10).isEmpty());
+    }
+
+    @Test
+    void match_keepsTypoMatchesApart() {
+        DestinationIndex.Matches typo = index.match("marakech", 10);
+        assertTrue(typo.direct().isEmpty());
+        assertEquals(List.of("Marrakech"), names(typo.similar()));
+
+        assertEquals(List.of("Marrakech"), names(index.match("marr", 10).direct()));
+    }
+
+    private static List<String> names(List<DestinationIndex.Entry> entries) {
+        return entries.stream().map(DestinationIndex.Entry::name).toList();
+    }
+}
@@ -0,0 +1,71 @@
+package com.voyageconnect.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DestinationSearchCacheTest {
+
+    private SimpleMeterRegistry registry;
+    private DestinationSearchCache cache;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        cache = new DestinationSearchCache(2, 60, registry);
+    }
+
+    @Test
+    void get_exactHitAfterPut() {
+        cache.put("Paris", List.of(city("PARIS", "PAR")), true);
+
+        List<Map<String, Object>> result = cache.get("  paris ");
+        assertNotNull(result);
+        assertEquals(1, result.size());
+        assertEquals(1.0, registry.get("destination.cache.requests").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void get_longerPrefixFilteredFromCompleteResult() {
+        cache.put("Mar", List.of(city("MARRAKECH", "RAK"), city("MARSEILLE", "MRS")), true);
+
+        List<Map<String, Object>> result = cache.get("Marr");
+        assertNotNull(result);
+        assertEquals(1, result.size());
+        assertEquals("MARRAKECH", result.get(0).get("name"));
+        assertEquals(1.0, registry.get("destination.cache.requests").tag("result", "prefix_hit").counter().count());
+    }
+
+    @Test
+    void get_incompletePrefixIsAMiss() {
+        cache.put("Mar", List.of(city("MARRAKECH", "RAK")), false);
+
+        assertNull(cache.get("Marr"));
+        assertEquals(1.0, registry.get("destination.cache.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void put_evictsLeastRecentlyUsedBeyondMaxEntries() {
+        cache.put("Paris", List.of(city("PARIS", "PAR")), true);
+        cache.put("Rome", List.of(city("ROME", "ROM")), true);
+        cache.put("Tokyo", List.of(city("TOKYO", "TYO")), true);
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("Paris"));
+        assertEquals(1.0, registry.get("destination.cache.evictions").tag("cause", "size").counter().count());
+    }
+
+    @Test
+    void normalize_stripsAccentsAndCase() {
+        assertEquals("fes", DestinationSearchCache.normalize(" Fès "));
+    }
+
+    private static Map<String, Object> city(String name, String iataCode) {
+        return Map.of("id", "C" + iataCode, "name", name, "iataCode", iataCode, "country", "");
+    }
+}
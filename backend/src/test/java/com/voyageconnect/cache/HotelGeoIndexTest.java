@@ -0,0 +1,69 @@
+package com.voyageconnect.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotelGeoIndexTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HotelGeoIndex index = new HotelGeoIndex(0.05, 3, 2, 60, new SimpleMeterRegistry());
+
+    @Test
+    void nearby_returnsHotelsWithinRadiusNearestFirst() throws Exception {
+        index.addAll("booking", List.of(
+            hotel(1, "Koutoubia", 31.6240, -7.9936),
+            hotel(2, "Medina", 31.6295, -7.9811),
+            hotel(3, "Agadir Beach", 30.4202, -9.5982)));
+
+        List<HotelGeoIndex.Hotel> hotels = index.nearby(31.6258, -7.9891, 2000, 10);
+
+        assertEquals(List.of("booking:1", "booking:2"), hotels.stream().map(HotelGeoIndex.Hotel::key).toList());
+    }
+
+    @Test
+    void withinBounds_spansCellsAndSkipsEntriesWithoutCoordinates() throws Exception {
+        index.addAll("amadeus", List.of(
+            hotel(1, "North", 31.70, -8.00),
+            hotel(2, "South", 31.55, -7.95),
+            objectMapper.readTree("{\"hotel_id\": 3, \"hotel_name\": \"Nowhere\"}")));
+
+        assertEquals(2, index.withinBounds(31.50, -8.10, 31.80, -7.90, 10).size());
+        assertEquals(1, index.withinBounds(31.65, -8.10, 31.80, -7.90, 10).size());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void addAll_replacesSameHotelAndEvictsOldestOverCapacity() throws Exception {
+        index.addAll("booking", List.of(hotel(1, "A", 31.60, -8.00), hotel(2, "B", 31.61, -8.00)));
+        index.addAll("booking", List.of(hotel(1, "A moved", 31.62, -8.00)));
+        index.addAll("booking", List.of(hotel(3, "C", 31.63, -8.00), hotel(4, "D", 31.64, -8.00)));
+
+        assertEquals(3, index.size());
+        List<String> keys = index.withinBounds(31.5, -8.1, 31.7, -7.9, 10).stream().map(HotelGeoIndex.Hotel::key).toList();
+        assertFalse(keys.contains("booking:2"));
+        assertTrue(keys.containsAll(List.of("booking:1", "booking:3", "booking:4")));
+    }
+
+    @Test
+    void markCityIndexed_keepsAtMostMaxCities() {
+        assertFalse(index.isCityIndexed("Marrakech"));
+        index.markCityIndexed("Marrakech");
+        index.markCityIndexed("Agadir");
+        index.markCityIndexed("Fes");
+
+        assertTrue(index.isCityIndexed("fes"));
+        assertEquals(1, List.of("Marrakech", "Agadir").stream().filter(index::isCityIndexed).count());
+    }
+
+    private JsonNode hotel(int id, String name, double latitude, double longitude) throws Exception {
+        return objectMapper.readTree(String.format(Locale.ROOT,
+            "{\"hotel_id\": %d, \"hotel_name\": \"%s\", \"latitude\": %f, \"longitude\": %f}", id, name, latitude, longitude));
+    }
+}
@@ -0,0 +1,48 @@
+package com.voyageconnect.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchSessionTest {
+
+    private final SearchSession session = new SearchSession("s1", SearchSession.Kind.HOTELS, List.of(
+        new SearchSession.Item("a", 120.0, null, null, 8.1, null),
+        new SearchSession.Item("b", 80.0, null, null, null, null),
+        new SearchSession.Item("c", 200.0, null, null, 9.4, null),
+        new SearchSession.Item("d", null, null, null, 7.0, null)), true);
+
+    private static final SearchSession.Filter NONE = new SearchSession.Filter(null, null, null, null);
+
+    @Test
+    void page_sortsWithMissingValuesLastInBothDirections() {
+        assertEquals(List.of("b", "a", "c", "d"), session.page(SearchSession.SortField.PRICE, false, NONE, 0, 10).results());
+        assertEquals(List.of("c", "a", "b", "d"), session.page(SearchSession.SortField.PRICE, true, NONE, 0, 10).results());
+        assertEquals(List.of("c", "a", "d", "b"), session.page(SearchSession.SortField.RATING, true, NONE, 0, 10).results());
+    }
+
+    @Test
+    void page_filtersBeforePaging() {
+        SearchSession.Filter filter = new SearchSession.Filter(100.0, null, 8.0, null);
+
+        SearchSession.Page first = session.page(SearchSession.SortField.PRICE, false, filter, 0, 1);
+        SearchSession.Page second = session.page(SearchSession.SortField.PRICE, false, filter, 1, 1);
+
+        assertEquals(List.of("a"), first.results());
+        assertEquals(List.of("c"), second.results());
+        assertEquals(2, first.total());
+        assertTrue(session.page(SearchSession.SortField.PRICE, false, filter, 2, 1).results().isEmpty());
+    }
+
+    @Test
+    void page_farBeyondTheEndIsEmptyWithoutOverflow() {
+        SearchSession.Page page = session.page(SearchSession.SortField.PRICE, false, NONE, Integer.MAX_VALUE, 50);
+
+        assertTrue(page.results().isEmpty());
+        assertEquals(4, page.total());
+        assertThrows(IllegalArgumentException.class,
+            () -> session.page(SearchSession.SortField.PRICE, false, NONE, -1, 10));
+    }
+}
@@ -0,0 +1,91 @@
+package com.voyageconnect.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StaleWhileRevalidateCacheTest {
+
+    private SimpleMeterRegistry registry;
+    // Background refreshes are queued here and run explicitly by the tests
+    private List<Runnable> refreshes;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        refreshes = new ArrayList<>();
+    }
+
+    @Test
+    void get_freshHitDoesNotCallLoader() throws Exception {
+        StaleWhileRevalidateCache<String, String> cache = cache(Duration.ofHours(1), Duration.ofHours(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("v1", cache.get("PAR", () -> "v" + loads.incrementAndGet()));
+        assertEquals("v1", cache.get("PAR", () -> "v" + loads.incrementAndGet()));
+
+        assertEquals(1, loads.get());
+        assertTrue(refreshes.isEmpty());
+        assertEquals(1.0, requests("fresh"));
+        assertEquals(1.0, requests("miss"));
+    }
+
+    @Test
+    void get_staleHitServesOldValueAndRefreshesOnce() throws Exception {
+        StaleWhileRevalidateCache<String, String> cache = cache(Duration.ZERO, Duration.ofHours(1));
+        cache.put("PAR", "old");
+
+        assertEquals("old", cache.get("PAR", () -> "new"));
+        assertEquals("old", cache.get("PAR", () -> "new"));
+        assertEquals(1, refreshes.size(), "concurrent stale readers share one refresh");
+
+        refreshes.remove(0).run();
+        assertEquals("new", cache.getIfPresent("PAR"));
+        assertEquals(2.0, requests("stale"));
+        assertEquals(1.0, registry.get("cache.refreshes").tag("outcome", "success").counter().count());
+    }
+
+    @Test
+    void get_failedRefreshKeepsServingOldValue() throws Exception {
+        StaleWhileRevalidateCache<String, String> cache = cache(Duration.ZERO, Duration.ofHours(1));
+        cache.put("PAR", "old");
+
+        assertEquals("old", cache.get("PAR", () -> {
+            throw new IllegalStateException("provider down");
+        }));
+        refreshes.remove(0).run();
+
+        assertEquals("old", cache.get("PAR", () -> "new"));
+        assertEquals(1, refreshes.size(), "a new refresh can start after the failed one");
+        assertEquals(1.0, registry.get("cache.refreshes").tag("outcome", "failure").counter().count());
+    }
+
+    @Test
+    void get_expiredEntryIsLoadedOnCallerThread() throws Exception {
+        StaleWhileRevalidateCache<String, String> cache = cache(Duration.ZERO, Duration.ZERO);
+        cache.put("PAR", "old");
+
+        assertNull(cache.getIfPresent("PAR"));
+        assertEquals("new", cache.get("PAR", () -> "new"));
+        assertTrue(refreshes.isEmpty());
+        assertEquals(1.0, requests("miss"));
+        assertThrows(IllegalStateException.class, () -> cache.get("PAR", () -> {
+            throw new IllegalStateException("provider down");
+        }));
+    }
+
+    private StaleWhileRevalidateCache<String, String> cache(Duration freshFor, Duration staleFor) {
+        return new StaleWhileRevalidateCache<>("test", 10, freshFor, staleFor, refreshes::add, registry);
+    }
+
+    private double requests(String result) {
+        return registry.get("cache.requests").tag("result", result).counter().count();
+    }
+}
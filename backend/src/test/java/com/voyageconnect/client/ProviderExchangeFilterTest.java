@@ -0,0 +1,60 @@
+package com.voyageconnect.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderExchangeFilterTest {
+
+    private static final URI AMADEUS_URI = URI.create("https://test.api.amadeus.com/v2/shopping/flight-offers");
+
+    private ProviderGuard guard;
+    private ProviderExchangeFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ProviderHosts hosts = new ProviderHosts("https://test.api.amadeus.com", "booking-com.p.rapidapi.com");
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        guard = new ProviderGuard(registry, hosts);
+        ReflectionTestUtils.setField(guard, "maxConcurrent", 1);
+        ReflectionTestUtils.setField(guard, "bulkheadWaitMs", 0L);
+        ReflectionTestUtils.setField(guard, "windowSize", 4);
+        ReflectionTestUtils.setField(guard, "minimumCalls", 4);
+        ReflectionTestUtils.setField(guard, "failureRateThreshold", 50);
+        filter = new ProviderExchangeFilter(hosts, new ProviderRateLimiter(new MockEnvironment(), hosts, registry), guard);
+    }
+
+    @Test
+    void filter_holdsBulkheadSlotUntilBodyConsumed() throws Exception {
+        ClientRequest request = ClientRequest.create(HttpMethod.GET, AMADEUS_URI).build();
+        ClientResponse response = filter.filter(request,
+                r -> Mono.just(ClientResponse.create(HttpStatus.OK).body("{\"data\":[]}").build())).block();
+
+        assertNotNull(response);
+        assertThrows(ProviderUnavailableException.class, () -> guard.tryEnter("amadeus"),
+                "the slot is still held while the body is unread");
+
+        assertEquals("{\"data\":[]}", response.bodyToMono(String.class).block());
+        guard.tryEnter("amadeus").release();
+    }
+
+    @Test
+    void filter_releasesSlotWhenExchangeFails() throws Exception {
+        ClientRequest request = ClientRequest.create(HttpMethod.GET, AMADEUS_URI).build();
+
+        assertThrows(IllegalStateException.class, () -> filter.filter(request,
+                r -> Mono.error(new IllegalStateException("connection reset"))).block());
+        guard.tryEnter("amadeus").release();
+    }
+}
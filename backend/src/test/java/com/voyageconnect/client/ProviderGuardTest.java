@@ -0,0 +1,97 @@
+package com.voyageconnect.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderGuardTest {
+
+    private static final URI AMADEUS_URI = URI.create("https://test.api.amadeus.com/v1/reference-data/locations");
+
+    private ProviderGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        guard = new ProviderGuard(new SimpleMeterRegistry(),
+                new ProviderHosts("https://test.api.amadeus.com", "booking-com.p.rapidapi.com"));
+        ReflectionTestUtils.setField(guard, "maxConcurrent", 2);
+        ReflectionTestUtils.setField(guard, "bulkheadWaitMs", 0L);
+        ReflectionTestUtils.setField(guard, "windowSize", 4);
+        ReflectionTestUtils.setField(guard, "minimumCalls", 4);
+        ReflectionTestUtils.setField(guard, "failureRateThreshold", 50);
+        ReflectionTestUtils.setField(guard, "openDurationMs", 0L);
+    }
+
+    @Test
+    void intercept_opensAfterFailureRateAndRejectsWithoutCalling() throws Exception {
+        ReflectionTestUtils.setField(guard, "openDurationMs", 60_000L);
+        AtomicInteger calls = new AtomicInteger();
+
+        call(HttpStatus.OK, calls).close();
+        call(HttpStatus.OK, calls).close();
+        call(HttpStatus.SERVICE_UNAVAILABLE, calls).close();
+        call(HttpStatus.TOO_MANY_REQUESTS, calls).close();
+
+        assertEquals(ProviderGuard.State.OPEN, guard.getState("amadeus"));
+        assertThrows(ProviderUnavailableException.class, () -> call(HttpStatus.OK, calls));
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    void intercept_halfOpenProbeClosesOnSuccess() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 4; i++) {
+            call(HttpStatus.BAD_GATEWAY, calls).close();
+        }
+        assertEquals(ProviderGuard.State.OPEN, guard.getState("amadeus"));
+
+        // open-duration elapsed: the next call is the probe
+        call(HttpStatus.OK, calls).close();
+        assertEquals(ProviderGuard.State.CLOSED, guard.getState("amadeus"));
+        assertEquals(5, calls.get());
+    }
+
+    @Test
+    void intercept_clientErrorsDoNotOpenCircuit() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 6; i++) {
+            call(HttpStatus.NOT_FOUND, calls).close();
+        }
+        assertEquals(ProviderGuard.State.CLOSED, guard.getState("amadeus"));
+    }
+
+    @Test
+    void intercept_bulkheadHeldUntilResponseClosed() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        ClientHttpResponse first = call(HttpStatus.OK, calls);
+        ClientHttpResponse second = call(HttpStatus.OK, calls);
+
+        assertThrows(ProviderUnavailableException.class, () -> call(HttpStatus.OK, calls));
+
+        first.close();
+        call(HttpStatus.OK, calls).close();
+        second.close();
+        assertEquals(3, calls.get());
+    }
+
+    private ClientHttpResponse call(HttpStatus status, AtomicInteger calls) throws IOException {
+        ClientHttpRequestExecution execution = (request, body) -> {
+            calls.incrementAndGet();
+            return new MockClientHttpResponse(new byte[0], status);
+        };
+        return guard.intercept(new MockClientHttpRequest(HttpMethod.GET, AMADEUS_URI), new byte[0], execution);
+    }
+}
@@ -0,0 +1,118 @@
+package com.voyageconnect.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderHedgerTest {
+
+    @Test
+    void latencyWindow_p95OverLastSamplesOnly() {
+        ProviderHedger.LatencyWindow window = new ProviderHedger.LatencyWindow(100);
+        assertEquals(-1, window.percentile(0.95, 20));
+
+        for (int i = 1; i <= 100; i++) {
+            window.record(i);
+        }
+        assertEquals(95, window.percentile(0.95, 20));
+
+        // The ring buffer forgets the oldest samples
+        for (int i = 0; i < 100; i++) {
+            window.record(10);
+        }
+        assertEquals(10, window.percentile(0.95, 20));
+    }
+
+    @Test
+    void hedgeBudget_allowsAboutOneBackupPerTwentyCalls() {
+        ProviderHedger.HedgeBudget budget = new ProviderHedger.HedgeBudget(0.05, 10);
+
+        int hedges = 0;
+        for (int i = 0; i < 1000; i++) {
+            budget.deposit();
+            if (budget.tryWithdraw()) {
+                hedges++;
+            }
+        }
+        assertTrue(hedges <= 50, "hedges: " + hedges);
+        assertTrue(hedges >= 49, "hedges: " + hedges);
+    }
+
+    @Test
+    void hedgeBudget_burstIsCapped() {
+        ProviderHedger.HedgeBudget budget = new ProviderHedger.HedgeBudget(0.05, 2);
+        for (int i = 0; i < 1000; i++) {
+            budget.deposit();
+        }
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+
+    @Test
+    void wrap_backupWinsWhenPrimaryIsSlowerThanP95() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ProviderHosts hosts = new ProviderHosts("https://test.api.amadeus.com", "booking-com.p.rapidapi.com");
+        ProviderGuard guard = new ProviderGuard(registry, hosts);
+        ReflectionTestUtils.setField(guard, "maxConcurrent", 4);
+        ReflectionTestUtils.setField(guard, "windowSize", 10);
+        ReflectionTestUtils.setField(guard, "minimumCalls", 10);
+        ReflectionTestUtils.setField(guard, "failureRateThreshold", 50);
+        ProviderHedger hedger = new ProviderHedger(hosts, new ProviderRateLimiter(new MockEnvironment(), hosts, registry),
+                guard, registry, 4);
+        ReflectionTestUtils.setField(hedger, "enabled", true);
+        ReflectionTestUtils.setField(hedger, "providers", new String[]{"amadeus"});
+        ReflectionTestUtils.setField(hedger, "paths", new String[]{"/v2/shopping/flight-offers"});
+        ReflectionTestUtils.setField(hedger, "budgetPercent", 100.0);
+        ReflectionTestUtils.setField(hedger, "maxBurst", 10);
+        ReflectionTestUtils.setField(hedger, "windowSize", 10);
+        ReflectionTestUtils.setField(hedger, "minSamples", 1);
+        ReflectionTestUtils.setField(hedger, "minDelayMs", 1L);
+
+        AtomicInteger calls = new AtomicInteger();
+        ClientHttpRequestFactory slowFirstCall = (uri, method) -> new MockClientHttpRequest(method, uri) {
+            @Override
+            protected ClientHttpResponse executeInternal() {
+                int call = calls.incrementAndGet();
+                if (call == 2) {
+                    sleep(2000);
+                }
+                return new MockClientHttpResponse(("call " + call).getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+            }
+        };
+        ClientHttpRequestFactory factory = hedger.wrap(slowFirstCall);
+        URI uri = URI.create("https://test.api.amadeus.com/v2/shopping/flight-offers?originLocationCode=CMN");
+
+        // First call only records its latency
+        factory.createRequest(uri, HttpMethod.GET).execute().close();
+
+        long start = System.nanoTime();
+        try (ClientHttpResponse response = factory.createRequest(uri, HttpMethod.GET).execute()) {
+            assertEquals("call 3", new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertTrue(System.nanoTime() - start < 1_500_000_000L);
+        assertEquals(1.0, registry.counter("provider.hedge", "provider", "amadeus", "outcome", "won").count());
+        hedger.shutdown();
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
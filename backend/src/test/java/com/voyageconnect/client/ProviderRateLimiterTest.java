@@ -0,0 +1,63 @@
+package com.voyageconnect.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderRateLimiterTest {
+
+    @Test
+    void acquire_burstThenRejectsWhenWaitTooShort() throws Exception {
+        ProviderRateLimiter.Bucket bucket = new ProviderRateLimiter.Bucket("booking", 1, 2);
+
+        assertEquals(ProviderRateLimiter.Outcome.IMMEDIATE, bucket.acquire(RequestPriority.INTERACTIVE, 0));
+        assertEquals(ProviderRateLimiter.Outcome.IMMEDIATE, bucket.acquire(RequestPriority.INTERACTIVE, 0));
+        assertEquals(ProviderRateLimiter.Outcome.REJECTED, bucket.acquire(RequestPriority.INTERACTIVE, 50));
+    }
+
+    @Test
+    void acquire_interactiveLaneServedBeforeWaitingWarmup() throws Exception {
+        ProviderRateLimiter.Bucket bucket = new ProviderRateLimiter.Bucket("booking", 5, 1);
+        bucket.acquire(RequestPriority.INTERACTIVE, 0);
+
+        List<RequestPriority> served = new CopyOnWriteArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> warmup = pool.submit(() -> {
+                if (bucket.acquire(RequestPriority.WARMUP, 2000) != ProviderRateLimiter.Outcome.REJECTED) {
+                    served.add(RequestPriority.WARMUP);
+                }
+                return null;
+            });
+            // Let the warmup caller queue first
+            Thread.sleep(30);
+            Future<?> interactive = pool.submit(() -> {
+                if (bucket.acquire(RequestPriority.INTERACTIVE, 2000) != ProviderRateLimiter.Outcome.REJECTED) {
+                    served.add(RequestPriority.INTERACTIVE);
+                }
+                return null;
+            });
+            interactive.get();
+            warmup.get();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(List.of(RequestPriority.INTERACTIVE, RequestPriority.WARMUP), served);
+    }
+
+    @Test
+    void pause_emptiesBucketUntilRetryAfter() throws Exception {
+        ProviderRateLimiter.Bucket bucket = new ProviderRateLimiter.Bucket("booking", 100, 5);
+        bucket.pause(200);
+
+        assertEquals(ProviderRateLimiter.Outcome.REJECTED, bucket.acquire(RequestPriority.INTERACTIVE, 50));
+        assertEquals(ProviderRateLimiter.Outcome.QUEUED, bucket.acquire(RequestPriority.INTERACTIVE, 1000));
+    }
+}
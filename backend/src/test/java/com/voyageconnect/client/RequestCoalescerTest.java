@@ -0,0 +1,106 @@
+package com.voyageconnect.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestCoalescerTest {
+
+    private SimpleMeterRegistry registry;
+    private RequestCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        coalescer = new RequestCoalescer(registry, 5000);
+    }
+
+    @Test
+    void execute_concurrentCallersShareOneCall() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(pool.submit(() -> coalescer.execute("amadeus", "PAR", () -> {
+                    calls.incrementAndGet();
+                    release.await(5, TimeUnit.SECONDS);
+                    return "result";
+                })));
+            }
+            // Let every caller reach the coalescer before the leader finishes
+            while (collapsedCalls() < 3) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("result", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, calls.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private double collapsedCalls() {
+        Counter collapsed = registry.find("provider.calls").tag("outcome", "collapsed").counter();
+        return collapsed == null ? 0 : collapsed.count();
+    }
+
+    @Test
+    void execute_keyReleasedAfterCompletion() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        coalescer.execute("booking", "PARIS", calls::incrementAndGet);
+        coalescer.execute("booking", "PARIS", calls::incrementAndGet);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void execute_failurePropagatesToCaller() {
+        assertThrows(IllegalStateException.class, () -> coalescer.execute("amadeus", "X", () -> {
+            throw new IllegalStateException("boom");
+        }));
+    }
+
+    @Test
+    void execute_errorInLeaderReleasesFollowersAndKey() throws Exception {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<Object> leader = pool.submit(() -> coalescer.execute("amadeus", "ERR", () -> {
+                leaderStarted.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                throw new StackOverflowError();
+            }));
+            leaderStarted.await(5, TimeUnit.SECONDS);
+            Future<Object> follower = pool.submit(() -> coalescer.execute("amadeus", "ERR", () -> "own call"));
+            while (collapsedCalls() < 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+            assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertEquals("next", coalescer.execute("amadeus", "ERR", () -> "next"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
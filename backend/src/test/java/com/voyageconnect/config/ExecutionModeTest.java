@@ -0,0 +1,40 @@
+package com.voyageconnect.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutionModeTest {
+
+    private static final boolean VIRTUAL_THREADS_GA = Runtime.version().feature() >= 21;
+
+    @Test
+    void resolve_platformNeverUsesVirtualThreads() {
+        assertFalse(ExecutionMode.resolve("platform").isVirtual());
+    }
+
+    @Test
+    void resolve_fallsBackToPlatformWhenUnsupported() {
+        assertEquals(VIRTUAL_THREADS_GA, ExecutionMode.resolve("auto").isVirtual());
+        assertEquals(VIRTUAL_THREADS_GA, ExecutionMode.resolve("virtual").isVirtual());
+    }
+
+    @Test
+    void newVirtualThreadPerTaskExecutor_runsTasksWhenSupported() throws Exception {
+        ExecutionMode mode = ExecutionMode.resolve("virtual");
+        if (!mode.isVirtual()) {
+            assertThrows(IllegalStateException.class, () -> mode.newVirtualThreadPerTaskExecutor("test-"));
+            return;
+        }
+        ExecutorService executor = mode.newVirtualThreadPerTaskExecutor("test-");
+        try {
+            Future<String> name = executor.submit(() -> Thread.currentThread().getName());
+            assertEquals("test-0", name.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.voyageconnect.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotelAggregationServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void normalizeName_dropsAccentsPunctuationAndGenericWords() {
+        assertEquals("le meridien n fis", HotelAggregationService.normalizeName("Hôtel Le Méridien N'Fis"));
+        assertEquals("ibis casablanca city center", HotelAggregationService.normalizeName("IBIS CASABLANCA CITY CENTER"));
+    }
+
+    @Test
+    void isSameProperty_matchesNameAcrossProvidersWhenClose() throws Exception {
+        JsonNode booking = objectMapper.readTree(
+            "{\"name\":\"ibis Casablanca City Center\",\"latitude\":33.5921,\"longitude\":-7.6184}");
+        JsonNode amadeus = objectMapper.readTree(
+            "{\"hotel_name\":\"IBIS CASABLANCA CITY CENTER\",\"latitude\":33.5925,\"longitude\":-7.6190}");
+
+        assertTrue(HotelAggregationService.isSameProperty(booking, amadeus, 150));
+    }
+
+    @Test
+    void isSameProperty_keepsSameNameFarApart() throws Exception {
+        JsonNode downtown = objectMapper.readTree(
+            "{\"hotel_name\":\"Ibis\",\"latitude\":33.5921,\"longitude\":-7.6184}");
+        JsonNode airport = objectMapper.readTree(
+            "{\"hotel_name\":\"Ibis\",\"latitude\":33.3675,\"longitude\":-7.5899}");
+
+        assertFalse(HotelAggregationService.isSameProperty(downtown, airport, 150));
+    }
+
+    @Test
+    void dedupe_dropsOnlyEntriesAnEarlierProviderListed() throws Exception {
+        JsonNode booking = objectMapper.readTree("{\"name\":\"Riad Yasmine\"}");
+        JsonNode bookingTwin = objectMapper.readTree("{\"name\":\"Riad Yasmine\"}");
+        JsonNode amadeus = objectMapper.readTree("{\"hotel_name\":\"RIAD YASMINE\"}");
+        JsonNode other = objectMapper.readTree("{\"hotel_name\":\"Kasbah Tamadot\"}");
+        Map<String, List<JsonNode>> found = new LinkedHashMap<>();
+        found.put("booking", List.of(booking, bookingTwin));
+        found.put("amadeus", List.of(amadeus, other));
+
+        Map<String, List<JsonNode>> kept = HotelAggregationService.dedupe(found, 150);
+
+        assertEquals(List.of(booking, bookingTwin), kept.get("booking"));
+        assertEquals(List.of(other), kept.get("amadeus"));
+    }
+}
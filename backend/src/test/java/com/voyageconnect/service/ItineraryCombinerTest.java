@@ -0,0 +1,54 @@
+package com.voyageconnect.service;
+
+import com.voyageconnect.dto.FlightDTO;
+import com.voyageconnect.dto.ItinerarySearchDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItineraryCombinerTest {
+
+    @Test
+    void cheapest_returnsLowestTotalsInOrder() {
+        List<FlightDTO> outbound = List.of(
+            flight(1, "2026-03-01T08:00", "2026-03-01T11:00", "300"),
+            flight(2, "2026-03-01T09:00", "2026-03-01T12:00", "100"));
+        List<FlightDTO> inbound = List.of(
+            flight(3, "2026-03-08T08:00", "2026-03-08T11:00", "50"),
+            flight(4, "2026-03-08T18:00", "2026-03-08T21:00", "80"));
+
+        List<ItinerarySearchDTO.Itinerary> itineraries = ItineraryCombiner.cheapest(List.of(outbound, inbound), 3, 100);
+
+        assertEquals(3, itineraries.size());
+        assertEquals(new BigDecimal("150"), itineraries.get(0).getTotalPrice());
+        assertEquals(List.of(2L, 3L), itineraries.get(0).getFlights().stream().map(FlightDTO::getId).toList());
+        assertEquals(new BigDecimal("180"), itineraries.get(1).getTotalPrice());
+        assertEquals(new BigDecimal("350"), itineraries.get(2).getTotalPrice());
+    }
+
+    @Test
+    void cheapest_skipsLegsThatDepartBeforeThePreviousArrives() {
+        List<FlightDTO> first = List.of(flight(1, "2026-03-01T08:00", "2026-03-01T14:00", "100"));
+        List<FlightDTO> second = List.of(
+            flight(2, "2026-03-01T12:00", "2026-03-01T13:00", "10"),
+            flight(3, "2026-03-01T16:00", "2026-03-01T17:00", "40"));
+
+        List<ItinerarySearchDTO.Itinerary> itineraries = ItineraryCombiner.cheapest(List.of(first, second), 5, 100);
+
+        assertEquals(1, itineraries.size());
+        assertEquals(new BigDecimal("140"), itineraries.get(0).getTotalPrice());
+    }
+
+    @Test
+    void cheapest_emptyWhenALegHasNoOffers() {
+        List<FlightDTO> outbound = List.of(flight(1, "2026-03-01T08:00", "2026-03-01T11:00", "100"));
+        assertTrue(ItineraryCombiner.cheapest(List.of(outbound, List.of()), 5, 100).isEmpty());
+    }
+
+    private static FlightDTO flight(long id, String departure, String arrival, String price) {
+        return new FlightDTO(id, departure, arrival, new BigDecimal(price), 10, 1L, "AT", String.valueOf(id), null);
+    }
+}
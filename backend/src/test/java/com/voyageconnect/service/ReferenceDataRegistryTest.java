@@ -0,0 +1,55 @@
+package com.voyageconnect.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReferenceDataRegistryTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Object> events = new ArrayList<>();
+    private final ApplicationEventPublisher publisher = events::add;
+
+    @Test
+    void bundledData_resolvesCodesAirportsNamesAndAliases() {
+        ReferenceDataRegistry registry = new ReferenceDataRegistry(objectMapper, publisher,
+            new DefaultResourceLoader(), "classpath:data/reference-data.json");
+
+        assertEquals("Paris", registry.lookup("CDG").name());
+        assertEquals("-1456928", registry.lookup("paris").bookingDestId());
+        assertEquals("Fes", registry.lookup("Fès").name());
+        assertNotNull(registry.lookup("MARRAKESH").bbox());
+        assertTrue(registry.lookup("RAK").amadeusHotels());
+        assertNull(registry.lookup("Atlantis"));
+    }
+
+    @Test
+    void reload_swapsValidDataAndKeepsPreviousOnError(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("reference-data.json");
+        Files.writeString(file, """
+            {"version": "1", "cities": [{"iataCode": "PAR", "name": "Paris", "country": "France"}]}""");
+        ReferenceDataRegistry registry = new ReferenceDataRegistry(objectMapper, publisher,
+            new DefaultResourceLoader(), file.toUri().toString());
+        assertNull(registry.lookup("LIS"));
+
+        Files.writeString(file, """
+            {"version": "2", "cities": [{"iataCode": "PAR", "name": "Paris"}, {"iataCode": "LIS", "name": "Lisbon"}]}""");
+        assertEquals("2", registry.reload().version());
+        assertEquals("Lisbon", registry.lookup("lisbon").name());
+        assertEquals(1, events.size());
+
+        Files.writeString(file, """
+            {"version": "3", "cities": [{"iataCode": "PAR", "name": "Paris"}, {"iataCode": "PAR", "name": "Parma"}]}""");
+        assertThrows(IllegalStateException.class, registry::reload);
+        assertEquals("2", registry.get().version());
+    }
+}
@@ -17,6 +17,36 @@ export class FlightService {
     return this.http.get<any[]>(this.base, { params });
   }
 
+  /** Departure date ± flexDays in one request: offers of all days plus the cheapest price per day */
+  listFlexible(origin: string, destination: string, departureDate: string, flexDays: number, adults: number = 1): Observable<any> {
+    const params = new HttpParams()
+      .set('origin', origin)
+      .set('destination', destination)
+      .set('departureDate', departureDate)
+      .set('flexDays', flexDays.toString())
+      .set('adults', adults.toString());
+    return this.http.get<any>(this.base, { params });
+  }
+
+  /** Outbound and return legs searched together; itineraries come priced and cheapest first */
+  roundTrip(origin: string, destination: string, departureDate: string, returnDate: string, adults: number = 1): Observable<any> {
+    const params = new HttpParams()
+      .set('origin', origin)
+      .set('destination', destination)
+      .set('departureDate', departureDate)
+      .set('returnDate', returnDate)
+      .set('adults', adults.toString());
+    return this.http.get<any>(`${this.base}/round-trip`, { params });
+  }
+
+  /** Multi-city legs searched in parallel server-side */
+  multiCity(legs: { origin: string; destination: string; departureDate: string }[], adults: number = 1): Observable<any> {
+    const params = new HttpParams()
+      .set('legs', legs.map(l => `${l.origin}-${l.destination}-${l.departureDate}`).join(','))
+      .set('adults', adults.toString());
+    return this.http.get<any>(`${this.base}/multi-city`, { params });
+  }
+
   getById(id: number): Observable<any> {
     return this.http.get<any>(`${this.base}/${id}`);
   }
@@ -102,6 +102,34 @@ export class HotelService {
     );
   }
 
+  /** Hotels around a point (radius in meters), from previously searched results; city searches the area once if empty */
+  nearby(lat: number, lng: number, radius: number = 2000, city?: string, limit: number = 50): Observable<Hotel[]> {
+    let params = new HttpParams()
+      .set('lat', lat.toString())
+      .set('lng', lng.toString())
+      .set('radius', radius.toString())
+      .set('limit', limit.toString());
+    if (city) params = params.set('city', city);
+    return this.nearbyHotels(params);
+  }
+
+  /** Hotels inside a map viewport: [west, south, east, north] */
+  inBounds(bbox: [number, number, number, number], city?: string, limit: number = 50): Observable<Hotel[]> {
+    let params = new HttpParams().set('bbox', bbox.join(',')).set('limit', limit.toString());
+    if (city) params = params.set('city', city);
+    return this.nearbyHotels(params);
+  }
+
+  private nearbyHotels(params: HttpParams): Observable<Hotel[]> {
+    return this.http.get<any>(`${this.base}/nearby`, { params }).pipe(
+      map((response: any) => (response.result || []).map((prop: BookingProperty, index: number) => this.mapBookingToHotel(prop, index))),
+      catchError(error => {
+        console.error('Error fetching nearby hotels:', error);
+        return of([]);
+      })
+    );
+  }
+
   private mapBookingToHotel(prop: BookingProperty, index: number): Hotel {
     // Support both v2 and v1 API structures
     const hotelId = prop.id || prop.hotel_id || (1000 + index);
@@ -0,0 +1,65 @@
+import { Injectable } from '@angular/core';
+import { HttpClient, HttpParams } from '@angular/common/http';
+import { Observable } from 'rxjs';
+
+export interface SearchPage {
+  searchId: string | null;
+  kind: 'FLIGHTS' | 'HOTELS';
+  sort: string;
+  order: 'asc' | 'desc';
+  page: number;
+  size: number;
+  total: number;
+  /** false when a provider failed or was too slow: the session expires soon, search again for the rest */
+  complete: boolean;
+  results: any[];
+}
+
+export interface SearchPageOptions {
+  sort?: 'price' | 'duration' | 'departure' | 'rating';
+  order?: 'asc' | 'desc';
+  minPrice?: number;
+  maxPrice?: number;
+  minRating?: number;
+  airline?: string;
+  page?: number;
+  size?: number;
+}
+
+/**
+ * Server-side search sessions: search once, then re-sort, filter and page by searchId
+ * without re-querying the providers (404 from page() means the session expired: search again)
+ */
+@Injectable({ providedIn: 'root' })
+export class SearchSessionService {
+  private base = '/api/search';
+
+  constructor(private http: HttpClient) {}
+
+  flights(origin: string, destination: string, departureDate: string, adults: number = 1,
+          flexDays: number = 0, options: SearchPageOptions = {}): Observable<SearchPage> {
+    const params = this.params(options)
+      .set('origin', origin)
+      .set('destination', destination)
+      .set('departureDate', departureDate)
+      .set('adults', adults.toString())
+      .set('flexDays', flexDays.toString());
+    return this.http.get<SearchPage>(`${this.base}/flights`, { params });
+  }
+
+  hotels(city: string, options: SearchPageOptions = {}): Observable<SearchPage> {
+    return this.http.get<SearchPage>(`${this.base}/hotels`, { params: this.params(options).set('city', city) });
+  }
+
+  page(searchId: string, options: SearchPageOptions = {}): Observable<SearchPage> {
+    return this.http.get<SearchPage>(`${this.base}/sessions/${encodeURIComponent(searchId)}`, { params: this.params(options) });
+  }
+
+  private params(options: SearchPageOptions): HttpParams {
+    let params = new HttpParams();
+    Object.entries(options).forEach(([key, value]) => {
+      if (value != null && value !== '') params = params.set(key, String(value));
+    });
+    return params;
+  }
+}
@@ -0,0 +1,57 @@
+import { Injectable, NgZone } from '@angular/core';
+import { Observable } from 'rxjs';
+
+export interface SearchStreamEvent {
+  type: 'flights' | 'hotels' | 'error';
+  data: any;
+}
+
+export interface SearchStreamParams {
+  origin?: string;
+  destination?: string;
+  departureDate?: string;
+  adults?: number;
+  city?: string;
+}
+
+/**
+ * Server-Sent Events search: emits flight and hotel results as each provider answers,
+ * completes on the server's "done" event
+ */
+@Injectable({ providedIn: 'root' })
+export class SearchStreamService {
+  private base = '/api/search/stream';
+
+  constructor(private zone: NgZone) {}
+
+  search(params: SearchStreamParams): Observable<SearchStreamEvent> {
+    const query = new URLSearchParams();
+    Object.entries(params).forEach(([key, value]) => {
+      if (value != null && value !== '') query.set(key, String(value));
+    });
+
+    return new Observable<SearchStreamEvent>(observer => {
+      const source = new EventSource(`${this.base}?${query.toString()}`);
+      const forward = (type: SearchStreamEvent['type']) => (e: MessageEvent) =>
+        this.zone.run(() => observer.next({ type, data: JSON.parse(e.data) }));
+
+      source.addEventListener('flights', forward('flights'));
+      source.addEventListener('hotels', forward('hotels'));
+      source.addEventListener('error', (e: Event) => {
+        // Provider error events carry data; a bare error means the connection dropped
+        if (e instanceof MessageEvent && e.data) {
+          forward('error')(e);
+        } else {
+          source.close();
+          this.zone.run(() => observer.error(e));
+        }
+      });
+      source.addEventListener('done', () => {
+        source.close();
+        this.zone.run(() => observer.complete());
+      });
+
+      return () => source.close();
+    });
+  }
+}